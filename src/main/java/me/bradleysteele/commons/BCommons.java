@@ -20,7 +20,11 @@ import me.bradleysteele.commons.hook.dependency.DependencyLoader;
 import me.bradleysteele.commons.hook.dependency.MavenDependency;
 import me.bradleysteele.commons.nms.NMSReflection;
 import me.bradleysteele.commons.util.logging.ConsoleLogHandler;
+import me.bradleysteele.commons.concurrent.MainThreadExecutor;
+import me.bradleysteele.commons.worker.WorkerAsyncTabComplete;
 import me.bradleysteele.commons.worker.WorkerBInventory;
+import me.bradleysteele.commons.worker.WorkerPermissionCache;
+import me.bradleysteele.commons.worker.WorkerPlayerNames;
 
 import java.util.logging.Logger;
 
@@ -54,6 +58,13 @@ public class BCommons extends BPlugin {
         Logger.getLogger("BPlugin").addHandler(new ConsoleLogHandler());
 
         this.console.info("Server version: &e%s &r(&e%s&r, legacy: &e%s&r).", NMSReflection.getPackageVersionFloat(), NMSReflection.getPackageVersion(), NMSReflection.isLegacy());
+        this.register(MainThreadExecutor.class);
         this.register(WorkerBInventory.class);
+        this.register(WorkerPlayerNames.class);
+        this.register(WorkerPermissionCache.class);
+
+        if (WorkerAsyncTabComplete.isSupported()) {
+            this.register(WorkerAsyncTabComplete.class);
+        }
     }
 }
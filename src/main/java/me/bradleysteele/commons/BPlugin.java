@@ -17,6 +17,9 @@
 package me.bradleysteele.commons;
 
 import com.google.common.collect.Lists;
+import me.bradleysteele.commons.concurrent.BExecutor;
+import me.bradleysteele.commons.concurrent.MainThreadExecutor;
+import me.bradleysteele.commons.concurrent.ShutdownCoordinator;
 import me.bradleysteele.commons.register.Registrable;
 import me.bradleysteele.commons.resource.DefaultResourceProvider;
 import me.bradleysteele.commons.resource.ResourceProvider;
@@ -36,6 +39,7 @@ import oshi.software.os.OperatingSystem;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 /**
@@ -50,6 +54,8 @@ public abstract class BPlugin extends JavaPlugin {
 
     protected PluginDescriptionFile description;
     protected ResourceProvider resourceProvider;
+    protected BExecutor executor;
+    protected final ShutdownCoordinator shutdownCoordinator = new ShutdownCoordinator(this);
     protected final ConsoleLog console = new ConsoleLog();
 
 /* Solar start
@@ -94,6 +100,7 @@ public abstract class BPlugin extends JavaPlugin {
 */ // Solar end
 
         description = getDescription();
+        executor = new BExecutor(this);
         resourceProvider = new DefaultResourceProvider(this);
         resourceProvider.addResourceHandler(new YamlResourceHandler());
         resourceProvider.addResourceHandler(new JsonResourceHandler());
@@ -112,6 +119,11 @@ public abstract class BPlugin extends JavaPlugin {
 
     @Override
     public final void onEnable() {
+        // The executor is shut down when the plugin disables.
+        if (executor.isShutdown()) {
+            executor = new BExecutor(this);
+        }
+
         execute(new StateExecutor(StateType.ENABLE) {
 
             @Override
@@ -127,10 +139,21 @@ public abstract class BPlugin extends JavaPlugin {
 
             @Override
             public void execute() {
-                // Unregister registrables before disabling.
-                registers.forEach(Registrable::onUnregister);
-
-                disable();
+                try {
+                    // Unregister registrables before disabling.
+                    registers.forEach(Registrable::onUnregister);
+
+                    disable();
+                } finally {
+                    // Stop new async work once registrables and the
+                    // plugin have submitted their saves, then drain it.
+                    shutdownCoordinator.begin();
+                    shutdownCoordinator.drain();
+
+                    // Run this plugin's callbacks handed back by the
+                    // drained work.
+                    MainThreadExecutor.get().drain(BPlugin.this);
+                }
             }
         });
     }
@@ -274,6 +297,20 @@ public abstract class BPlugin extends JavaPlugin {
         return resourceProvider;
     }
 
+    /**
+     * @return the plugin's executor for asynchronous work.
+     */
+    public BExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the coordinator of async work while the plugin disables.
+     */
+    public ShutdownCoordinator getShutdownCoordinator() {
+        return shutdownCoordinator;
+    }
+
     /**
      * @return the plugin's console logger.
      */
@@ -290,6 +327,23 @@ public abstract class BPlugin extends JavaPlugin {
         this.resourceProvider = resourceProvider;
     }
 
+    /**
+     * Replaces the plugin's executor, should be called in {@link #load()}
+     * before any asynchronous work is submitted. The executor is shut
+     * down when the plugin disables and replaced with a default one if
+     * the plugin is enabled again.
+     *
+     * @param executor the plugin's executor for asynchronous work.
+     */
+    public void setExecutor(BExecutor executor) {
+        BExecutor previous = this.executor;
+        this.executor = executor;
+
+        if (previous != null && previous != executor) {
+            previous.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
     // Util
 
     public String getLoggableName(Class<?> clazz) {
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.concurrent;
+
+import com.google.common.collect.Maps;
+import me.bradleysteele.commons.BPlugin;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link BExecutor} runs a plugin's asynchronous work: async
+ * commands, async workers and resource loads.
+ * <p>
+ * Unlike the Bukkit scheduler's shared, unbounded pool, the executor
+ * is bounded: tasks submitted once it is full are rejected with a
+ * {@link RejectedExecutionException}. Work may be further limited
+ * through named {@link BExecutorQueue}s.
+ *
+ * @author Bradley Steele
+ */
+public class BExecutor implements Executor {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTask = null;
+
+        // Java 21+
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builder.getMethod("name", String.class, long.class);
+            builderFactory = builder.getMethod("factory");
+            newThreadPerTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException e) {
+            // Ignored
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK = newThreadPerTask;
+    }
+
+    /**
+     * @return {@code true} if the runtime supports virtual threads.
+     */
+    public static boolean isVirtualSupported() {
+        return NEW_THREAD_PER_TASK != null;
+    }
+
+    private final BPlugin plugin;
+    private final String name;
+    private final Mode mode;
+    private final int capacity;
+    private final ExecutorService service;
+
+    private final Map<String, BExecutorQueue> queues = Maps.newConcurrentMap();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * @param plugin   the owning plugin.
+     * @param mode     the type of thread to run tasks on, falls back to
+     *                 {@link Mode#PLATFORM} if virtual threads are not
+     *                 supported.
+     * @param threads  the maximum number of platform threads, ignored
+     *                 for virtual threads.
+     * @param capacity the maximum number of tasks submitted but not yet
+     *                 completed.
+     */
+    public BExecutor(BPlugin plugin, Mode mode, int threads, int capacity) {
+        if (threads <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("threads and capacity must be positive.");
+        }
+
+        this.plugin = plugin;
+        this.name = plugin.getName().toLowerCase(Locale.ENGLISH) + "-async";
+        this.mode = mode == Mode.VIRTUAL && isVirtualSupported() ? Mode.VIRTUAL : Mode.PLATFORM;
+        this.capacity = capacity;
+
+        if (this.mode == Mode.VIRTUAL) {
+            service = newVirtualService(name + "-");
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(capacity), new PlatformThreadFactory(name + "-"));
+
+            pool.allowCoreThreadTimeOut(true);
+            service = pool;
+        }
+    }
+
+    /**
+     * Creates a bounded platform executor with a thread per available
+     * processor.
+     *
+     * @param plugin the owning plugin.
+     */
+    public BExecutor(BPlugin plugin) {
+        this(plugin, Mode.PLATFORM, Math.max(2, Runtime.getRuntime().availableProcessors()), 1024);
+    }
+
+    /**
+     * @param task the task to run asynchronously.
+     *
+     * @throws RejectedExecutionException if the executor is shut down
+     *                                    or at capacity.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (service.isShutdown()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException(name + " is shut down.");
+        }
+
+        if (active.incrementAndGet() > capacity) {
+            active.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException(name + " is at capacity (" + capacity + ").");
+        }
+
+        try {
+            service.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            active.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+        }
+
+        submitted.incrementAndGet();
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            failed.incrementAndGet();
+
+            plugin.getConsole().error("An exception occurred in async task on &c%s&r:", name);
+            plugin.getConsole().exception(t);
+        } finally {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Creates, or returns the existing, named queue limiting the
+     * number of its tasks running at once.
+     *
+     * @param name        the queue name.
+     * @param concurrency the maximum tasks running at once.
+     * @param capacity    the maximum tasks waiting to run.
+     * @return the queue.
+     */
+    public BExecutorQueue createQueue(String name, int concurrency, int capacity) {
+        return queues.computeIfAbsent(name.toLowerCase(Locale.ENGLISH),
+                key -> new BExecutorQueue(this, key, concurrency, capacity));
+    }
+
+    /**
+     * @param name the queue name.
+     * @return the queue, or {@code null} if it has not been created.
+     */
+    public BExecutorQueue getQueue(String name) {
+        return queues.get(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Stops accepting tasks and waits for submitted tasks to complete,
+     * interrupting any still running once the timeout has elapsed.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return {@code true} if all tasks completed in time.
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        close();
+
+        if (awaitTermination(timeout, unit)) {
+            return true;
+        }
+
+        int[] abandoned = shutdownNow();
+        plugin.getConsole().warn("Executor &e%s &rdid not terminate in time, &e%d &rrunning and &e%d &rqueued tasks were abandoned.",
+                name, abandoned[0], abandoned[1]);
+
+        return false;
+    }
+
+    /**
+     * Stops accepting tasks, tasks already submitted still run.
+     */
+    public void close() {
+        service.shutdown();
+    }
+
+    /**
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return {@code true} if the executor is closed and all submitted
+     *         tasks have completed.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        try {
+            return service.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return service.isTerminated();
+        }
+    }
+
+    /**
+     * Stops accepting tasks, discards queued tasks and interrupts those
+     * running.
+     *
+     * @return the number of tasks that were running and the number that
+     *         were queued.
+     */
+    public int[] shutdownNow() {
+        List<Runnable> dropped = service.shutdownNow();
+
+        // Dropped tasks never run, release their slots.
+        active.addAndGet(-dropped.size());
+
+        return new int[] {Math.max(0, active.get()), dropped.size()};
+    }
+
+    BPlugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * @return the executor name, also used to prefix thread names.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the type of thread tasks are run on.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the maximum number of tasks submitted but not yet
+     *         completed.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of tasks submitted but not yet completed.
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return the total number of tasks accepted.
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * @return the total number of tasks completed, including failures.
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * @return the total number of tasks rejected.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the total number of tasks which threw an exception.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return {@code true} if the executor no longer accepts tasks.
+     */
+    public boolean isShutdown() {
+        return service.isShutdown();
+    }
+
+    private static ExecutorService newVirtualService(String prefix) {
+        try {
+            Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+
+            return (ExecutorService) NEW_THREAD_PER_TASK.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("failed to create virtual thread executor.", e);
+        }
+    }
+
+    public enum Mode {
+        /**
+         * A bounded pool of platform threads.
+         */
+        PLATFORM,
+
+        /**
+         * A virtual thread per task, requires Java 21+.
+         */
+        VIRTUAL
+    }
+
+    private static final class PlatformThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final String prefix;
+
+        PlatformThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
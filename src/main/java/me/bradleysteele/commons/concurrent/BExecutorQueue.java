@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A named lane on a {@link BExecutor} limiting how many of its tasks
+ * run at once and how many may wait, preventing a single kind of work
+ * from starving the rest of the executor.
+ * <p>
+ * A task accepted by the queue may still be rejected by the executor
+ * once it reaches the front, it is then failed through the rejection
+ * handler it was submitted with.
+ *
+ * @author Bradley Steele
+ */
+public class BExecutorQueue implements Executor {
+
+    private final BExecutor executor;
+    private final String name;
+    private final int concurrency;
+    private final int capacity;
+
+    private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    BExecutorQueue(BExecutor executor, String name, int concurrency, int capacity) {
+        if (concurrency <= 0 || capacity < 0) {
+            throw new IllegalArgumentException("concurrency must be positive and capacity not negative.");
+        }
+
+        this.executor = executor;
+        this.name = name;
+        this.concurrency = concurrency;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param task the task to run asynchronously.
+     *
+     * @throws RejectedExecutionException if the queue is full or the
+     *                                    executor is shut down.
+     */
+    @Override
+    public void execute(Runnable task) {
+        execute(task, null);
+    }
+
+    /**
+     * @param task       the task to run asynchronously.
+     * @param onRejected called if the executor rejects the task after
+     *                   it was queued, may be {@code null} to log it.
+     *
+     * @throws RejectedExecutionException if the queue is full or the
+     *                                    executor is shut down.
+     */
+    public void execute(Runnable task, Consumer<RejectedExecutionException> onRejected) {
+        if (executor.isShutdown()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException(executor.getName() + " is shut down.");
+        }
+
+        // Tasks waiting plus those running.
+        if (size.incrementAndGet() > capacity + concurrency) {
+            size.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("queue " + name + " is full.");
+        }
+
+        tasks.offer(new Task(task, onRejected));
+        drain();
+    }
+
+    private void drain() {
+        while (!tasks.isEmpty()) {
+            int current = running.get();
+
+            if (current >= concurrency) {
+                return;
+            }
+
+            if (!running.compareAndSet(current, current + 1)) {
+                continue;
+            }
+
+            Task task = tasks.poll();
+
+            if (task == null) {
+                running.decrementAndGet();
+                continue;
+            }
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.runnable.run();
+                    } finally {
+                        size.decrementAndGet();
+                        running.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                size.decrementAndGet();
+                running.decrementAndGet();
+                rejected.incrementAndGet();
+                reject(task, e);
+
+                // A running task drains the rest once it completes.
+                if (running.get() > 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void reject(Task task, RejectedExecutionException e) {
+        if (task.onRejected == null) {
+            executor.getPlugin().getConsole().warn("Rejected queued task on &e%s&r: %s", name, e.getMessage());
+            return;
+        }
+
+        try {
+            task.onRejected.accept(e);
+        } catch (Throwable t) {
+            executor.getPlugin().getConsole().error("An exception occurred handling a rejected task on &c%s&r:", name);
+            executor.getPlugin().getConsole().exception(t);
+        }
+    }
+
+    /**
+     * @return the queue name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the maximum tasks running at once.
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return the maximum tasks waiting to run.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of tasks running.
+     */
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    /**
+     * @return the number of tasks waiting to run.
+     */
+    public int getPendingCount() {
+        return tasks.size();
+    }
+
+    /**
+     * @return the total number of tasks rejected.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private static final class Task {
+
+        private final Runnable runnable;
+        private final Consumer<RejectedExecutionException> onRejected;
+
+        private Task(Runnable runnable, Consumer<RejectedExecutionException> onRejected) {
+            this.runnable = runnable;
+            this.onRejected = onRejected;
+        }
+    }
+}
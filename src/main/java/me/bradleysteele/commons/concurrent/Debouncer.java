@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.concurrent;
+
+import com.google.common.collect.Maps;
+import me.bradleysteele.commons.register.worker.BWorker;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Collapses repeated requests for the same key, such as "save player
+ * data" or "refresh scoreboard", into a single execution.
+ * <p>
+ * In {@link Mode#DEBOUNCE} mode a key runs once no request has been
+ * made for the window; in {@link Mode#COALESCE} mode it runs once the
+ * window since its first request has elapsed. Either way the most
+ * recently requested task is the one executed.
+ * <p>
+ * Requests may be made from any thread. The worker checks deadlines
+ * every tick on the main thread and runs due tasks there, or submits
+ * them to the given executor. Pending tasks are run when the worker is
+ * unregistered rather than lost.
+ *
+ * @param <K> the type of key.
+ * @author Bradley Steele
+ */
+public class Debouncer<K> extends BWorker {
+
+    private final Map<K, Entry> pending = Maps.newConcurrentMap();
+
+    private final Mode mode;
+    private final long window;
+    private final long maxWait;
+    private final Executor executor;
+
+    private volatile long tick;
+
+    /**
+     * @param mode     when a key runs.
+     * @param window   the window, in ticks.
+     * @param maxWait  in {@link Mode#DEBOUNCE} mode, the maximum ticks a
+     *                 key may be postponed since its first request, or
+     *                 {@code 0} for no maximum.
+     * @param executor the executor to run tasks on, or {@code null} to
+     *                 run them on the main thread.
+     */
+    public Debouncer(Mode mode, long window, long maxWait, Executor executor) {
+        if (window <= 0 || maxWait < 0) {
+            throw new IllegalArgumentException("window must be positive and maxWait not negative.");
+        }
+
+        this.mode = mode;
+        this.window = window;
+        this.maxWait = maxWait;
+        this.executor = executor;
+
+        setPeriod(1);
+        setSync(true);
+    }
+
+    /**
+     * @param mode   when a key runs.
+     * @param window the window, in ticks.
+     */
+    public Debouncer(Mode mode, long window) {
+        this(mode, window, 0, null);
+    }
+
+    /**
+     * Requests the task be run for the key, replacing any task already
+     * pending for it.
+     *
+     * @param key  the key.
+     * @param task the task to run.
+     */
+    public void request(K key, Runnable task) {
+        long now = tick;
+
+        pending.compute(key, (k, entry) -> {
+            if (entry == null) {
+                return new Entry(task, now, now + window);
+            }
+
+            long due = entry.due;
+
+            if (mode == Mode.DEBOUNCE) {
+                due = now + window;
+
+                if (maxWait > 0) {
+                    due = Math.min(due, entry.first + maxWait);
+                }
+            }
+
+            return new Entry(task, entry.first, due);
+        });
+    }
+
+    /**
+     * @param key the key.
+     * @return {@code true} if a task was pending for the key.
+     */
+    public boolean cancel(K key) {
+        return pending.remove(key) != null;
+    }
+
+    /**
+     * Runs the key's pending task immediately, on the calling thread.
+     *
+     * @param key the key.
+     * @return {@code true} if a task was pending for the key.
+     */
+    public boolean flush(K key) {
+        Entry entry = pending.remove(key);
+
+        if (entry == null) {
+            return false;
+        }
+
+        runSafely(entry.task);
+        return true;
+    }
+
+    /**
+     * Runs every pending task immediately, on the calling thread.
+     */
+    public void flushAll() {
+        for (K key : pending.keySet()) {
+            flush(key);
+        }
+    }
+
+    @Override
+    public final void run() {
+        long now = ++tick;
+
+        for (Map.Entry<K, Entry> e : pending.entrySet()) {
+            Entry entry = e.getValue();
+
+            // A request racing this removal replaces the entry and
+            // keeps it pending.
+            if (entry.due <= now && pending.remove(e.getKey(), entry)) {
+                submit(entry.task);
+            }
+        }
+    }
+
+    @Override
+    public void onUnregister() {
+        flushAll();
+    }
+
+    private void submit(Runnable task) {
+        if (executor == null) {
+            runSafely(task);
+            return;
+        }
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            runSafely(task);
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            plugin.getConsole().error("An exception occurred in debounced task:");
+            plugin.getConsole().exception(e);
+        }
+    }
+
+    /**
+     * @param key the key.
+     * @return {@code true} if a task is pending for the key.
+     */
+    public boolean isPending(K key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * @return the number of keys with a pending task.
+     */
+    public int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * @return when keys run.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the window, in ticks.
+     */
+    public long getWindow() {
+        return window;
+    }
+
+    public enum Mode {
+        /**
+         * Runs once no request has been made for the window.
+         */
+        DEBOUNCE,
+
+        /**
+         * Runs once the window since the first request has elapsed.
+         */
+        COALESCE
+    }
+
+    private static final class Entry {
+
+        private final Runnable task;
+        private final long first;
+        private final long due;
+
+        Entry(Runnable task, long first, long due) {
+            this.task = task;
+            this.first = first;
+            this.due = due;
+        }
+    }
+}
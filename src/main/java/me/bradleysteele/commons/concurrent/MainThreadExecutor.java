@@ -0,0 +1,309 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.concurrent;
+
+import me.bradleysteele.commons.BPlugin;
+import me.bradleysteele.commons.register.worker.BWorker;
+import me.bradleysteele.commons.util.logging.StaticLog;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands tasks from any thread to the main thread in batches, drained
+ * once per tick, rather than scheduling a Bukkit task per callback.
+ * <p>
+ * Tasks run in submission order. Each tick drains tasks until the time
+ * budget is spent, leaving the remainder for the next tick; at least
+ * one task is always run. Usable with {@code CompletableFuture}'s
+ * {@code *Async} methods as their executor, see {@link #forPlugin}.
+ * <p>
+ * Tasks may be owned by a plugin: they are run by {@link #drain(BPlugin)}
+ * when the plugin disables and dropped if still queued afterwards. The
+ * backlog is bounded, tasks submitted once it is full are rejected with
+ * a {@link RejectedExecutionException}.
+ *
+ * @author Bradley Steele
+ */
+public final class MainThreadExecutor extends BWorker implements Executor {
+
+    private static final MainThreadExecutor instance = new MainThreadExecutor();
+
+    public static MainThreadExecutor get() {
+        return instance;
+    }
+
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicInteger peakBacklog = new AtomicInteger();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile long budget = TimeUnit.MILLISECONDS.toNanos(5);
+    private volatile int capacity = 65536;
+    private volatile int drainedLastTick;
+
+    private MainThreadExecutor() {
+        setPeriod(1);
+        setSync(true);
+    }
+
+    /**
+     * @param task the task to run on the main thread.
+     *
+     * @throws RejectedExecutionException if the backlog is full.
+     */
+    @Override
+    public void execute(Runnable task) {
+        execute(null, task);
+    }
+
+    /**
+     * @param owner the plugin the task belongs to, or {@code null}.
+     * @param task  the task to run on the main thread.
+     *
+     * @throws RejectedExecutionException if the backlog is full.
+     */
+    public void execute(BPlugin owner, Runnable task) {
+        int size = backlog.incrementAndGet();
+
+        if (size > capacity) {
+            backlog.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("main thread backlog is full (" + capacity + ").");
+        }
+
+        queue.offer(new Task(owner, task));
+        submitted.incrementAndGet();
+
+        int peak;
+
+        while (size > (peak = peakBacklog.get()) && !peakBacklog.compareAndSet(peak, size)) {
+            // Retry
+        }
+    }
+
+    /**
+     * @param owner the plugin tasks submitted through the executor
+     *              belong to.
+     * @return an executor submitting tasks owned by the plugin.
+     */
+    public Executor forPlugin(BPlugin owner) {
+        return task -> execute(owner, task);
+    }
+
+    @Override
+    public void run() {
+        long deadline = System.nanoTime() + budget;
+        int drained = 0;
+        Task task;
+
+        while ((task = queue.poll()) != null) {
+            backlog.decrementAndGet();
+
+            // The owner has disabled since the task was queued.
+            if (task.owner != null && !task.owner.isEnabled()) {
+                dropped.incrementAndGet();
+                continue;
+            }
+
+            drained++;
+            runSafely(task.runnable);
+
+            if (System.nanoTime() - deadline >= 0) {
+                if (!queue.isEmpty()) {
+                    overruns.incrementAndGet();
+                }
+
+                break;
+            }
+        }
+
+        drainedLastTick = drained;
+    }
+
+    @Override
+    public void onUnregister() {
+        // Run whatever is left rather than lose it.
+        drain();
+    }
+
+    /**
+     * Runs every waiting task on the calling thread, regardless of the
+     * budget, dropping those owned by disabled plugins. Should only be
+     * called from the main thread.
+     */
+    public void drain() {
+        Task task;
+
+        while ((task = queue.poll()) != null) {
+            backlog.decrementAndGet();
+
+            if (task.owner != null && !task.owner.isEnabled()) {
+                dropped.incrementAndGet();
+                continue;
+            }
+
+            runSafely(task.runnable);
+        }
+    }
+
+    /**
+     * Runs every waiting task owned by the plugin on the calling thread,
+     * regardless of the budget, called while the plugin disables. Tasks
+     * owned by other plugins are left queued.
+     *
+     * @param owner the plugin.
+     */
+    public void drain(BPlugin owner) {
+        for (Task task : queue) {
+            // Skip tasks polled by another drain.
+            if (task.owner == owner && queue.remove(task)) {
+                backlog.decrementAndGet();
+                runSafely(task.runnable);
+            }
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            if (plugin != null) {
+                plugin.getConsole().error("An exception occurred in main thread task:");
+                plugin.getConsole().exception(e);
+            } else {
+                StaticLog.error("An exception occurred in main thread task:");
+                StaticLog.exception(e);
+            }
+        } finally {
+            executed.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting to run.
+     */
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    /**
+     * @return the largest backlog observed.
+     */
+    public int getPeakBacklog() {
+        return peakBacklog.get();
+    }
+
+    /**
+     * @return the total number of tasks submitted.
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * @return the total number of tasks run.
+     */
+    public long getExecutedCount() {
+        return executed.get();
+    }
+
+    /**
+     * @return the number of ticks which spent their budget with tasks
+     *         still waiting.
+     */
+    public long getOverrunCount() {
+        return overruns.get();
+    }
+
+    /**
+     * @return the total number of tasks rejected with a full backlog.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the total number of tasks dropped because their plugin
+     *         had disabled.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of tasks run in the most recent tick.
+     */
+    public int getDrainedLastTick() {
+        return drainedLastTick;
+    }
+
+    /**
+     * @param unit the unit to return the budget in.
+     * @return the time each tick may spend running tasks.
+     */
+    public long getBudget(TimeUnit unit) {
+        return unit.convert(budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param budget the time each tick may spend running tasks.
+     * @param unit   the unit of the budget.
+     */
+    public void setBudget(long budget, TimeUnit unit) {
+        this.budget = unit.toNanos(budget);
+    }
+
+    /**
+     * @return the maximum number of tasks waiting to run.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param capacity the maximum number of tasks waiting to run.
+     */
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive.");
+        }
+
+        this.capacity = capacity;
+    }
+
+    private static final class Task {
+
+        private final BPlugin owner;
+        private final Runnable runnable;
+
+        private Task(BPlugin owner, Runnable runnable) {
+            this.owner = owner;
+            this.runnable = runnable;
+        }
+    }
+}
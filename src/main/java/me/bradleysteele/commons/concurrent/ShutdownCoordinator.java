@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.concurrent;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import me.bradleysteele.commons.BPlugin;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinates a {@link BPlugin}'s asynchronous work while it disables,
+ * so pending saves finish and the server is not held up indefinitely.
+ * <p>
+ * Once registrables are unregistered and the plugin has disabled, its
+ * executor stops accepting work and shutdown tasks run in parallel
+ * while the executor drains and tracked futures complete, all bounded
+ * by a single deadline. Anything still running at the deadline is
+ * reported by name and interrupted.
+ *
+ * @author Bradley Steele
+ */
+public class ShutdownCoordinator {
+
+    private final BPlugin plugin;
+
+    private final Map<String, Runnable> tasks = Maps.newLinkedHashMap();
+    private final Map<CompletableFuture<?>, String> tracked = Maps.newConcurrentMap();
+
+    private volatile long timeout = TimeUnit.SECONDS.toNanos(10);
+    private volatile boolean shuttingDown;
+
+    public ShutdownCoordinator(BPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Adds a task to run, in parallel with other shutdown tasks, while
+     * the plugin disables. Tasks added under an existing name replace
+     * it.
+     *
+     * @param name the name reported if the task overruns.
+     * @param task the task, such as saving data.
+     */
+    public void addTask(String name, Runnable task) {
+        synchronized (tasks) {
+            tasks.put(name, task);
+        }
+    }
+
+    /**
+     * @param name the name of the task to remove.
+     */
+    public void removeTask(String name) {
+        synchronized (tasks) {
+            tasks.remove(name);
+        }
+    }
+
+    /**
+     * Waits for the future to complete while the plugin disables.
+     *
+     * @param name   the name reported if the future is incomplete.
+     * @param future the future.
+     * @param <T>    the result type.
+     * @return the future.
+     */
+    public <T> CompletableFuture<T> track(String name, CompletableFuture<T> future) {
+        if (!future.isDone()) {
+            tracked.put(future, name);
+            future.whenComplete((result, throwable) -> tracked.remove(future));
+        }
+
+        return future;
+    }
+
+    /**
+     * Stops new async work, called once the plugin's registrables have
+     * been unregistered.
+     */
+    public void begin() {
+        shuttingDown = true;
+        plugin.getExecutor().close();
+    }
+
+    /**
+     * Runs shutdown tasks and drains async work until complete or the
+     * deadline has passed, then interrupts whatever remains.
+     */
+    public void drain() {
+        long start = System.nanoTime();
+        long deadline = start + timeout;
+
+        List<Thread> threads = Lists.newArrayList();
+
+        synchronized (tasks) {
+            for (Map.Entry<String, Runnable> entry : tasks.entrySet()) {
+                Thread thread = new Thread(() -> runSafely(entry.getKey(), entry.getValue()),
+                        plugin.getName().toLowerCase(Locale.ENGLISH) + "-shutdown-" + entry.getKey());
+
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+        }
+
+        BExecutor executor = plugin.getExecutor();
+        boolean drained = executor.awaitTermination(remaining(deadline), TimeUnit.NANOSECONDS);
+
+        for (Thread thread : threads) {
+            join(thread, deadline);
+        }
+
+        for (CompletableFuture<?> future : tracked.keySet()) {
+            try {
+                future.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // Reported below if incomplete.
+            }
+        }
+
+        // Report stragglers.
+        List<String> stragglers = Lists.newArrayList();
+
+        for (Thread thread : threads) {
+            if (thread.isAlive()) {
+                stragglers.add(thread.getName());
+                thread.interrupt();
+            }
+        }
+
+        for (Map.Entry<CompletableFuture<?>, String> entry : tracked.entrySet()) {
+            if (!entry.getKey().isDone()) {
+                stragglers.add(entry.getValue());
+            }
+        }
+
+        if (!drained && !executor.awaitTermination(0, TimeUnit.NANOSECONDS)) {
+            int[] abandoned = executor.shutdownNow();
+            stragglers.add(String.format("%s (%d running, %d queued)", executor.getName(), abandoned[0], abandoned[1]));
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (stragglers.isEmpty()) {
+            plugin.getConsole().debug("Drained async work in &a%dms&r.", elapsed);
+        } else {
+            plugin.getConsole().warn("Async work did not finish within &e%dms&r, abandoned: &e%s&r.",
+                    elapsed, String.join("&r, &e", stragglers));
+        }
+
+        shuttingDown = false;
+    }
+
+    private void runSafely(String name, Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            plugin.getConsole().error("Shutdown task &c%s &rfailed:", name);
+            plugin.getConsole().exception(e);
+        }
+    }
+
+    private static void join(Thread thread, long deadline) {
+        long remaining = remaining(deadline);
+
+        if (remaining <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * @return {@code true} while async work is being drained.
+     */
+    public boolean isShuttingDown() {
+        return shuttingDown;
+    }
+
+    /**
+     * @param unit the unit to return the timeout in.
+     * @return the time async work is given to finish.
+     */
+    public long getTimeout(TimeUnit unit) {
+        return unit.convert(timeout, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param timeout the time async work is given to finish.
+     * @param unit    the unit of the timeout.
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        this.timeout = unit.toNanos(timeout);
+    }
+}
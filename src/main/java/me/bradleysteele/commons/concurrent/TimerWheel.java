@@ -0,0 +1,284 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.concurrent;
+
+import me.bradleysteele.commons.register.worker.BWorker;
+import org.bukkit.Bukkit;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A hierarchical hashed timing wheel of tick-granular timers, advanced
+ * one tick per run on the main thread.
+ * <p>
+ * Scheduling and cancelling are O(1) regardless of how many timers are
+ * pending, and a single worker replaces a {@code BukkitTask} per timer.
+ * Timers are held in four wheels of 256, 64, 64 and 64 slots, covering
+ * delays of up to 2^26 ticks (~39 days); longer delays are clamped.
+ * Timers due in the same tick expire together in one batch.
+ * <p>
+ * Timers may be scheduled and cancelled from any thread, their
+ * callbacks always run on the main thread.
+ *
+ * @author Bradley Steele
+ */
+public class TimerWheel extends BWorker {
+
+    private static final int[] BITS = {8, 6, 6, 6};
+    private static final long MAX_DELAY = (1L << 26) - 1;
+    private static final AtomicIntegerFieldUpdater<Timer> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timer.class, "state");
+
+    private final Timer[][] wheels = new Timer[BITS.length][];
+    private final Queue<Timer> incoming = new ConcurrentLinkedQueue<>();
+
+    private long tick;
+    private int pending;
+
+    public TimerWheel() {
+        for (int i = 0; i < BITS.length; i++) {
+            wheels[i] = new Timer[1 << BITS[i]];
+        }
+
+        setPeriod(1);
+        setSync(true);
+    }
+
+    /**
+     * @param delay    the ticks to wait before running the callback, at
+     *                 least one.
+     * @param callback the callback to run on the main thread.
+     * @return the timer, which may be cancelled.
+     */
+    public Timer schedule(long delay, Runnable callback) {
+        Timer timer = new Timer(Math.max(1, Math.min(delay, MAX_DELAY)), callback);
+        incoming.offer(timer);
+
+        return timer;
+    }
+
+    @Override
+    public final void run() {
+        drainIncoming();
+
+        tick++;
+
+        // Cascade higher wheels whose slot boundary has been reached.
+        int shift = 0;
+
+        for (int level = 1; level < BITS.length; level++) {
+            shift += BITS[level - 1];
+
+            if ((tick & ((1L << shift) - 1)) != 0) {
+                break;
+            }
+
+            int slot = (int) ((tick >>> shift) & (wheels[level].length - 1));
+            Timer timer = detach(level, slot);
+
+            while (timer != null) {
+                Timer next = timer.next;
+                place(timer);
+                timer = next;
+            }
+        }
+
+        // Expire the current slot as a batch.
+        Timer timer = detach(0, (int) (tick & (wheels[0].length - 1)));
+
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.next = timer.previous = null;
+
+            // Lost to a concurrent cancel if not scheduled.
+            if (STATE.compareAndSet(timer, Timer.SCHEDULED, Timer.EXPIRED)) {
+                try {
+                    timer.callback.run();
+                } catch (Exception e) {
+                    plugin.getConsole().error("An exception occurred in timer callback:");
+                    plugin.getConsole().exception(e);
+                }
+            }
+
+            timer = next;
+        }
+    }
+
+    private void drainIncoming() {
+        Timer timer;
+
+        while ((timer = incoming.poll()) != null) {
+            if (timer.state != Timer.SCHEDULED) {
+                continue;
+            }
+
+            timer.deadline = tick + timer.delay;
+            place(timer);
+        }
+    }
+
+    private void place(Timer timer) {
+        if (timer.state != Timer.SCHEDULED) {
+            return;
+        }
+
+        long remaining = timer.deadline - tick;
+        int level = 0;
+        int shift = 0;
+
+        while (level < BITS.length - 1 && remaining >= (1L << (shift + BITS[level]))) {
+            shift += BITS[level];
+            level++;
+        }
+
+        int slot = (int) ((timer.deadline >>> shift) & (wheels[level].length - 1));
+
+        pending++;
+        timer.wheel = level;
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = wheels[level][slot];
+
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+
+        wheels[level][slot] = timer;
+    }
+
+    private Timer detach(int level, int slot) {
+        Timer head = wheels[level][slot];
+        wheels[level][slot] = null;
+
+        // Detached timers are no longer unlinked when cancelled, so a
+        // callback cancelling another timer in its batch is safe.
+        for (Timer timer = head; timer != null; timer = timer.next) {
+            timer.wheel = -1;
+            pending--;
+        }
+
+        return head;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.wheel < 0) {
+            return;
+        }
+
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else if (wheels[timer.wheel][timer.slot] == timer) {
+            wheels[timer.wheel][timer.slot] = timer.next;
+        }
+
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+
+        timer.next = timer.previous = null;
+        timer.wheel = -1;
+        pending--;
+    }
+
+    /**
+     * @return the number of ticks the wheel has advanced.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return the number of timers pending in the wheel, excluding
+     *         those scheduled since the last tick.
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * A timer scheduled on a {@link TimerWheel}.
+     */
+    public final class Timer {
+
+        private static final int SCHEDULED = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final long delay;
+        private final Runnable callback;
+        // Package-private for the field updater.
+        volatile int state = SCHEDULED;
+
+        // Main thread only.
+        private long deadline;
+        private int wheel = -1;
+        private int slot;
+        private Timer previous;
+        private Timer next;
+
+        private Timer(long delay, Runnable callback) {
+            this.delay = delay;
+            this.callback = callback;
+        }
+
+        /**
+         * Cancels the timer, may be called from any thread. Timers
+         * cancelled on the main thread are removed from the wheel
+         * immediately, otherwise once their slot is reached.
+         *
+         * @return {@code true} if the timer was pending.
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, SCHEDULED, CANCELLED)) {
+                return false;
+            }
+
+            if (Bukkit.isPrimaryThread()) {
+                unlink(this);
+            }
+
+            return true;
+        }
+
+        /**
+         * @return {@code true} if the timer has neither expired nor been
+         *         cancelled.
+         */
+        public boolean isPending() {
+            return state == SCHEDULED;
+        }
+
+        /**
+         * @return {@code true} if the timer was cancelled.
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * @return the tick the timer expires on, or {@code -1} if not
+         *         yet placed in the wheel.
+         *
+         * @see TimerWheel#getTick()
+         */
+        public long getDeadline() {
+            return deadline > 0 ? deadline : -1;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import me.bradleysteele.commons.worker.WorkerBInventory;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+
+/**
+ * Base implementation of {@link BInventory} which owns its inventory
+ * and renders it through an {@link InventoryRenderer}. Implementations
+ * describe their contents with {@link #draw(InventoryFrame)} and call
+ * {@link #render()} whenever they need to be redrawn, only the slots
+ * which changed are sent to viewers.
+ * <p>
+ * Clicks are dispatched by the {@link WorkerBInventory} straight to the
+ * {@link SlotHandler} registered for the clicked slot, if any.
+ *
+ *  <pre> {@code
+ * class InvExample extends AbstractBInventory {
+ *
+ *     InvExample() {
+ *         super(27, "Example");
+ *         render();
+ *     }
+ *
+ *     protected void draw(InventoryFrame frame) {
+ *         frame.setRow(BORDER, 0);
+ *     }
+ * }}</pre>
+ *
+ * @author Bradley Steele
+ */
+public abstract class AbstractBInventory implements BInventory {
+
+    private final Inventory inventory;
+    private final InventoryRenderer renderer;
+    private final SlotHandler[] handlers;
+
+    /**
+     * @param size  the number of slots, a multiple of 9.
+     * @param title the inventory title.
+     */
+    protected AbstractBInventory(int size, String title) {
+        this.inventory = Bukkit.createInventory(this, size, title);
+        this.renderer = new InventoryRenderer(inventory);
+        this.handlers = new SlotHandler[size];
+    }
+
+    /**
+     * Describes the desired contents of the inventory. The provided
+     * frame is empty.
+     *
+     * @param frame the frame to draw to.
+     */
+    protected abstract void draw(InventoryFrame frame);
+
+    /**
+     * Draws a new frame and commits the slots which changed.
+     *
+     * @return the number of slots which were written.
+     */
+    public int render() {
+        InventoryFrame frame = new InventoryFrame(inventory.getSize());
+        draw(frame);
+
+        return renderer.render(frame);
+    }
+
+    /**
+     * Called by the {@link WorkerBInventory} once the last viewer has
+     * closed the inventory, after {@link #onClose}.
+     */
+    public void onClosed() {}
+
+    /**
+     * Invokes the handler registered for the clicked slot of this
+     * inventory, clicks outside of this inventory are ignored.
+     *
+     * @param event   the event fired upon clicking.
+     * @param clicker player who clicked the inventory.
+     */
+    public void dispatchClick(InventoryClickEvent event, Player clicker) {
+        int slot = event.getRawSlot();
+
+        if (slot < 0 || slot >= handlers.length) {
+            return;
+        }
+
+        SlotHandler handler = handlers[slot];
+
+        if (handler != null) {
+            handler.onClick(event, clicker);
+        }
+    }
+
+    /**
+     * @param slot    the slot index.
+     * @param handler the handler invoked when the slot is clicked, or
+     *                {@code null} to remove the slot's handler.
+     */
+    public void setHandler(int slot, SlotHandler handler) {
+        handlers[slot] = handler;
+    }
+
+    /**
+     * @param handler the handler invoked when any of the slots are
+     *                clicked.
+     * @param slots   the slot indexes.
+     */
+    public void setHandler(SlotHandler handler, int... slots) {
+        for (int slot : slots) {
+            handlers[slot] = handler;
+        }
+    }
+
+    /**
+     * @param slot the slot index.
+     * @return the slot's handler, or {@code null} if none.
+     */
+    public SlotHandler getHandler(int slot) {
+        return handlers[slot];
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * @return the renderer committing frames to the inventory.
+     */
+    public InventoryRenderer getRenderer() {
+        return renderer;
+    }
+}
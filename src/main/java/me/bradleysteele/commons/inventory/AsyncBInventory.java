@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import me.bradleysteele.commons.BPlugin;
+import me.bradleysteele.commons.concurrent.MainThreadExecutor;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link BInventory} whose contents are built off the main thread,
+ * suitable for menus backed by a database or otherwise expensive to
+ * build. A placeholder frame is shown while the first frame is being
+ * built, finished frames are committed on the main thread on the
+ * following tick. Once built, {@link #render()} redraws the last built
+ * frame.
+ * <p>
+ * Builds which complete after the last viewer has closed the
+ * inventory, or after a newer build was requested, are discarded.
+ *
+ * @author Bradley Steele
+ */
+public abstract class AsyncBInventory extends AbstractBInventory {
+
+    protected final BPlugin plugin;
+
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private volatile boolean closed = true;
+    private volatile boolean loading;
+    private boolean built;
+    private InventoryFrame current;
+
+    /**
+     * @param plugin the plugin used to schedule builds.
+     * @param size   the number of slots, a multiple of 9.
+     * @param title  the inventory title.
+     */
+    protected AsyncBInventory(BPlugin plugin, int size, String title) {
+        super(size, title);
+
+        this.plugin = plugin;
+    }
+
+    /**
+     * Builds the contents of the inventory. Called off the main thread,
+     * implementations must not access the Bukkit API other than to
+     * build stacks.
+     *
+     * @param frame the empty frame to build.
+     * @throws Exception if the contents could not be built, the
+     *                   current frame is kept.
+     */
+    protected abstract void build(InventoryFrame frame) throws Exception;
+
+    /**
+     * Draws the frame displayed while the first build is in progress.
+     *
+     * @param frame the empty frame to draw.
+     */
+    protected void drawPlaceholder(InventoryFrame frame) {}
+
+    @Override
+    protected final void draw(InventoryFrame frame) {
+        if (current == null) {
+            drawPlaceholder(frame);
+            return;
+        }
+
+        for (int slot = 0; slot < frame.getSize(); slot++) {
+            frame.set(slot, current.get(slot));
+        }
+    }
+
+    /**
+     * Opens the inventory for the player and starts building its
+     * contents.
+     *
+     * @param player the player to open the inventory for.
+     */
+    public void open(Player player) {
+        closed = false;
+
+        if (!built) {
+            render();
+        }
+
+        // Cancelled by another plugin.
+        if (player.openInventory(getInventory()) == null) {
+            if (getInventory().getViewers().isEmpty()) {
+                closed = true;
+            }
+
+            return;
+        }
+
+        refresh();
+    }
+
+    /**
+     * Builds a new frame off the main thread, superseding any build
+     * in progress.
+     */
+    public void refresh() {
+        if (closed || !plugin.isEnabled()) {
+            return;
+        }
+
+        int expected = generation.incrementAndGet();
+        loading = true;
+
+        try {
+            plugin.getExecutor().execute(() -> buildAsync(expected));
+        } catch (RejectedExecutionException e) {
+            plugin.getConsole().warn("Rejected build of inventory &e%s&r: %s", plugin.getLoggableName(this), e.getMessage());
+            finish(expected);
+        }
+    }
+
+    private void buildAsync(int expected) {
+        InventoryFrame frame = new InventoryFrame(getInventory().getSize());
+
+        try {
+            build(frame);
+        } catch (Exception e) {
+            plugin.getConsole().error("Failed to build inventory &c%s&r:", plugin.getLoggableName(this));
+            plugin.getConsole().exception(e);
+
+            finish(expected);
+            return;
+        }
+
+        if (!isCurrent(expected) || !plugin.isEnabled()) {
+            return;
+        }
+
+        try {
+            MainThreadExecutor.get().execute(plugin, () -> commit(frame, expected));
+        } catch (RejectedExecutionException e) {
+            plugin.getConsole().warn("Rejected commit of inventory &e%s&r: %s", plugin.getLoggableName(this), e.getMessage());
+            finish(expected);
+        }
+    }
+
+    private void commit(InventoryFrame frame, int expected) {
+        if (!isCurrent(expected)) {
+            return;
+        }
+
+        getRenderer().render(frame);
+        current = frame;
+        built = true;
+        loading = false;
+    }
+
+    private void finish(int expected) {
+        if (generation.get() == expected) {
+            loading = false;
+        }
+    }
+
+    private boolean isCurrent(int expected) {
+        return !closed && generation.get() == expected;
+    }
+
+    @Override
+    public void onClosed() {
+        // Discard any build in progress.
+        closed = true;
+        loading = false;
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return {@code true} if a build is in progress.
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * @return {@code true} if at least one build has been committed.
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+}
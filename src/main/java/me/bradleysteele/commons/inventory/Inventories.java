@@ -75,6 +75,27 @@ public final class Inventories {
         return inv;
     }
 
+    /**
+     * Takes a lightweight snapshot of the inventory's storage slots,
+     * used to simulate adding items without cloning the inventory.
+     *
+     * @param inventory the inventory to snapshot.
+     * @return snapshot of the inventory's storage slots.
+     *
+     * @see InventorySnapshot
+     */
+    public static InventorySnapshot snapshot(Inventory inventory) {
+        ItemStack[] contents;
+
+        if (METHOD_INVENTORY_GET_STORAGE_CONTENTS != null) {
+            contents = inventory.getStorageContents();
+        } else {
+            contents = inventory.getContents();
+        }
+
+        return new InventorySnapshot(contents, inventory.getMaxStackSize());
+    }
+
     /**
      * Checks to see if an item stack can fit inside an inventory,
      * includes stacks which aren't at their max stack size.
@@ -84,7 +105,18 @@ public final class Inventories {
      * @return {@code true} if the item stack can fit in the inventory.
      */
     public static boolean fits(Inventory inventory, ItemStack... stacks) {
-        return clone(inventory, null, "_").addItem(stacks).isEmpty();
+        return snapshot(inventory).fits(stacks);
+    }
+
+    /**
+     * @param inventory inventory to check.
+     * @param stacks    item stacks to check.
+     * @return the simulated result of adding the stacks.
+     *
+     * @see InventorySnapshot#simulate(ItemStack...)
+     */
+    public static InventoryFit simulate(Inventory inventory, ItemStack... stacks) {
+        return snapshot(inventory).simulate(stacks);
     }
 
     /**
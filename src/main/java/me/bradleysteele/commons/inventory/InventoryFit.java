@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The result of an {@link InventorySnapshot} simulation.
+ *
+ * @author Bradley Steele
+ * @see InventorySnapshot#simulate(ItemStack...)
+ */
+public final class InventoryFit {
+
+    private final ItemStack[] stacks;
+    private final int[] fitted;
+    private final boolean[] touched;
+
+    InventoryFit(ItemStack[] stacks, int[] fitted, boolean[] touched) {
+        this.stacks = stacks;
+        this.fitted = fitted;
+        this.touched = touched;
+    }
+
+    /**
+     * @return {@code true} if every candidate stack fits entirely.
+     */
+    public boolean fits() {
+        for (int i = 0; i < stacks.length; i++) {
+            if (getLeftover(i) > 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @param index the index of the candidate stack.
+     * @return the amount of the candidate stack which fits.
+     */
+    public int getFitAmount(int index) {
+        return fitted[index];
+    }
+
+    /**
+     * @param index the index of the candidate stack.
+     * @return the amount of the candidate stack which does not fit.
+     */
+    public int getLeftover(int index) {
+        ItemStack stack = stacks[index];
+        return stack != null ? stack.getAmount() - fitted[index] : 0;
+    }
+
+    /**
+     * @return the amount of all candidate stacks which fit.
+     */
+    public int getTotalFitAmount() {
+        int total = 0;
+
+        for (int amount : fitted) {
+            total += amount;
+        }
+
+        return total;
+    }
+
+    /**
+     * @return the slots which would be filled or merged into, in
+     *         ascending order.
+     */
+    public int[] getSlots() {
+        int count = 0;
+
+        for (boolean slot : touched) {
+            if (slot) {
+                count++;
+            }
+        }
+
+        int[] slots = new int[count];
+
+        for (int slot = 0, i = 0; slot < touched.length; slot++) {
+            if (touched[slot]) {
+                slots[i++] = slot;
+            }
+        }
+
+        return slots;
+    }
+}
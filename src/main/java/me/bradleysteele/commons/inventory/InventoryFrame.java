@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * An {@link InventoryFrame} describes the desired contents of an
+ * inventory. Frames are committed through an {@link InventoryRenderer},
+ * which only writes the slots that differ from the last committed
+ * frame.
+ *
+ * @author Bradley Steele
+ */
+public class InventoryFrame {
+
+    private final ItemStack[] slots;
+
+    /**
+     * @param size the number of slots in the frame.
+     */
+    public InventoryFrame(int size) {
+        this.slots = new ItemStack[size];
+    }
+
+    /**
+     * @param frame the frame to copy.
+     */
+    public InventoryFrame(InventoryFrame frame) {
+        this.slots = frame.slots.clone();
+    }
+
+    /**
+     * @param slot  the slot index.
+     * @param stack the stack to display, or {@code null} to clear
+     *              the slot.
+     * @return this frame.
+     */
+    public InventoryFrame set(int slot, ItemStack stack) {
+        slots[slot] = stack;
+        return this;
+    }
+
+    /**
+     * @param stack the stack to display.
+     * @param slots the slot indexes.
+     * @return this frame.
+     */
+    public InventoryFrame set(ItemStack stack, int... slots) {
+        for (int slot : slots) {
+            this.slots[slot] = stack;
+        }
+
+        return this;
+    }
+
+    /**
+     * @param stack the stack to display.
+     * @param row   the row of the frame to fill.
+     * @return this frame.
+     */
+    public InventoryFrame setRow(ItemStack stack, int row) {
+        int rowStart = row * 9;
+        Arrays.fill(slots, rowStart, Math.min(rowStart + 9, slots.length), stack);
+        return this;
+    }
+
+    /**
+     * @param stack the stack to display in every slot.
+     * @return this frame.
+     */
+    public InventoryFrame fill(ItemStack stack) {
+        Arrays.fill(slots, stack);
+        return this;
+    }
+
+    /**
+     * @return this frame, with all slots cleared.
+     */
+    public InventoryFrame clear() {
+        return fill(null);
+    }
+
+    /**
+     * @param slot the slot index.
+     * @return the stack in the slot, or {@code null} if empty.
+     */
+    public ItemStack get(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * @return the number of slots in the frame.
+     */
+    public int getSize() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Objects;
+
+/**
+ * The {@link InventoryRenderer} commits {@link InventoryFrame}s to an
+ * inventory. The last committed frame is kept and diffed against the
+ * next, only slots which changed are written, avoiding a clone and
+ * slot update per unchanged slot.
+ * <p>
+ * When a frame changes at least {@link #getBulkThreshold()} slots, the
+ * contents are written in bulk and viewers are sent the whole window
+ * in a single update instead of one update per slot.
+ * <p>
+ * Renderers are not thread-safe and must be used on the main thread.
+ *
+ * @author Bradley Steele
+ */
+public class InventoryRenderer {
+
+    private final Inventory inventory;
+    private final ItemStack[] committed;
+    private final boolean[] known;
+    private final int[] changedSlots;
+
+    private int bulkThreshold;
+
+    /**
+     * @param inventory the inventory to render to.
+     */
+    public InventoryRenderer(Inventory inventory) {
+        this.inventory = inventory;
+        this.committed = new ItemStack[inventory.getSize()];
+        this.known = new boolean[committed.length];
+        this.changedSlots = new int[committed.length];
+        this.bulkThreshold = Math.max(1, committed.length / 2);
+    }
+
+    /**
+     * Writes the slots of the frame which differ from the previously
+     * committed frame.
+     *
+     * @param frame the desired state of the inventory.
+     * @return the number of slots which were written.
+     */
+    public int render(InventoryFrame frame) {
+        int size = Math.min(frame.getSize(), committed.length);
+        int changed = 0;
+
+        for (int slot = 0; slot < size; slot++) {
+            ItemStack stack = frame.get(slot);
+
+            if (known[slot] && Objects.equals(committed[slot], stack)) {
+                continue;
+            }
+
+            // Keep our own copy, the frame's stack may be mutated and
+            // reused by the caller for the next frame.
+            committed[slot] = stack != null ? stack.clone() : null;
+            known[slot] = true;
+            changedSlots[changed++] = slot;
+        }
+
+        if (changed == 0) {
+            return 0;
+        }
+
+        if (changed >= bulkThreshold) {
+            ItemStack[] contents = new ItemStack[committed.length];
+
+            for (int slot = 0; slot < contents.length; slot++) {
+                contents[slot] = known[slot] ? committed[slot] : inventory.getItem(slot);
+            }
+
+            inventory.setContents(contents);
+            flush();
+        } else {
+            for (int i = 0; i < changed; i++) {
+                int slot = changedSlots[i];
+                inventory.setItem(slot, committed[slot]);
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Sends the entire window to every viewer in a single update.
+     */
+    public void flush() {
+        for (HumanEntity viewer : inventory.getViewers()) {
+            if (viewer instanceof Player) {
+                ((Player) viewer).updateInventory();
+            }
+        }
+    }
+
+    /**
+     * Forgets the committed frame, causing every slot to be written
+     * on the next render. Should be called if the inventory has been
+     * altered without the renderer.
+     */
+    public void invalidate() {
+        for (int slot = 0; slot < known.length; slot++) {
+            known[slot] = false;
+            committed[slot] = null;
+        }
+    }
+
+    /**
+     * @return the inventory being rendered to.
+     */
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * @return the number of changed slots which causes the whole
+     *         window to be sent in a single update.
+     */
+    public int getBulkThreshold() {
+        return bulkThreshold;
+    }
+
+    /**
+     * @param bulkThreshold the number of changed slots which causes
+     *                      the whole window to be sent in a single
+     *                      update.
+     */
+    public void setBulkThreshold(int bulkThreshold) {
+        this.bulkThreshold = Math.max(1, bulkThreshold);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import me.bradleysteele.commons.itemstack.ItemStacks;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The {@link InventorySnapshot} is a lightweight copy of an inventory's
+ * storage slots, holding each slot's type, amount and max stack size.
+ * It is used to simulate {@link Inventory#addItem(ItemStack...)}
+ * without allocating and populating a Bukkit inventory.
+ * <p>
+ * Stacks are referenced rather than cloned and are never modified,
+ * the snapshot should therefore be discarded once the inventory has
+ * been altered.
+ *
+ * @author Bradley Steele
+ * @see Inventories#snapshot(Inventory)
+ */
+public final class InventorySnapshot {
+
+    private final ItemStack[] types;
+    private final int[] amounts;
+    private final int[] maxAmounts;
+    private final int maxStackSize;
+
+    InventorySnapshot(ItemStack[] contents, int maxStackSize) {
+        this.types = new ItemStack[contents.length];
+        this.amounts = new int[contents.length];
+        this.maxAmounts = new int[contents.length];
+        this.maxStackSize = maxStackSize;
+
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack stack = contents[slot];
+
+            if (!ItemStacks.isBlank(stack)) {
+                types[slot] = stack;
+                amounts[slot] = stack.getAmount();
+                maxAmounts[slot] = stack.getMaxStackSize();
+            }
+        }
+    }
+
+    /**
+     * Simulates adding the provided stacks, in order, to the inventory.
+     * Stacks are first merged into similar partial stacks, up to the
+     * item's max stack size, followed by empty slots, up to the
+     * inventory's max stack size, matching CraftBukkit's
+     * {@link Inventory#addItem(ItemStack...)}. Like Bukkit, an empty
+     * slot may therefore receive more than the item's max stack size.
+     * <p>
+     * The snapshot itself is not altered, each simulation starts from
+     * the state the snapshot was taken in.
+     *
+     * @param stacks the stacks to add.
+     * @return the result of the simulation.
+     */
+    public InventoryFit simulate(ItemStack... stacks) {
+        ItemStack[] simTypes = types.clone();
+        int[] simAmounts = amounts.clone();
+        int[] simMaxAmounts = maxAmounts.clone();
+        boolean[] touched = new boolean[types.length];
+        int[] fitted = new int[stacks.length];
+
+        for (int i = 0; i < stacks.length; i++) {
+            ItemStack stack = stacks[i];
+
+            if (ItemStacks.isBlank(stack)) {
+                continue;
+            }
+
+            int remaining = stack.getAmount();
+
+            // Merge into partial stacks first.
+            for (int slot = 0; slot < simTypes.length && remaining > 0; slot++) {
+                if (simTypes[slot] == null || simAmounts[slot] >= simMaxAmounts[slot] || !simTypes[slot].isSimilar(stack)) {
+                    continue;
+                }
+
+                int added = Math.min(remaining, simMaxAmounts[slot] - simAmounts[slot]);
+                simAmounts[slot] += added;
+                remaining -= added;
+                touched[slot] = true;
+            }
+
+            // Followed by empty slots.
+            for (int slot = 0; slot < simTypes.length && remaining > 0; slot++) {
+                if (simTypes[slot] != null) {
+                    continue;
+                }
+
+                int added = Math.min(remaining, maxStackSize);
+                simTypes[slot] = stack;
+                simAmounts[slot] = added;
+                simMaxAmounts[slot] = stack.getMaxStackSize();
+                remaining -= added;
+                touched[slot] = true;
+            }
+
+            fitted[i] = stack.getAmount() - remaining;
+        }
+
+        return new InventoryFit(stacks, fitted, touched);
+    }
+
+    /**
+     * @param stacks the stacks to add.
+     * @return {@code true} if all of the stacks fit.
+     */
+    public boolean fits(ItemStack... stacks) {
+        return simulate(stacks).fits();
+    }
+
+    /**
+     * @param stack the stack to add.
+     * @return the amount of the stack which fits, at most the
+     *         stack's amount.
+     */
+    public int fitAmount(ItemStack stack) {
+        return simulate(stack).getFitAmount(0);
+    }
+
+    /**
+     * @return the number of slots in the snapshot.
+     */
+    public int getSize() {
+        return types.length;
+    }
+
+    /**
+     * @param slot the slot index.
+     * @return the amount in the slot, or {@code 0} if empty.
+     */
+    public int getAmount(int slot) {
+        return amounts[slot];
+    }
+
+    /**
+     * @param slot the slot index.
+     * @return {@code true} if the slot is empty.
+     */
+    public boolean isEmpty(int slot) {
+        return types[slot] == null;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import java.util.List;
+
+/**
+ * A sized, indexed source of elements displayed by a
+ * {@link PaginatedBInventory}. Pages may be prefetched off the main
+ * thread, sources must therefore support concurrent reads.
+ *
+ * @param <T> the element type.
+ *
+ * @author Bradley Steele
+ */
+public interface PageSource<T> {
+
+    /**
+     * @param list the list to wrap.
+     * @param <T>  the element type.
+     * @return a page source backed by the list.
+     */
+    static <T> PageSource<T> of(List<? extends T> list) {
+        return new PageSource<T>() {
+
+            @Override
+            public int size() {
+                return list.size();
+            }
+
+            @Override
+            public T get(int index) {
+                return list.get(index);
+            }
+        };
+    }
+
+    /**
+     * @return the number of elements.
+     */
+    int size();
+
+    /**
+     * @param index the element index.
+     * @return the element at the index.
+     */
+    T get(int index);
+
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import me.bradleysteele.commons.BPlugin;
+import me.bradleysteele.commons.worker.WorkerBInventory;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link BInventory} displaying the elements of a {@link PageSource}
+ * across pages. Only the visible page is built, the following page is
+ * prefetched off the main thread and a small number of built pages
+ * are kept, least recently used first out.
+ * <p>
+ * Content slots and page controls are backed by {@link SlotHandler}s,
+ * clicks dispatched by the {@link WorkerBInventory} are mapped back to
+ * element indexes, see
+ * {@link #onElementClick(InventoryClickEvent, Player, Object, int)}.
+ *
+ * @param <T> the element type.
+ *
+ * @author Bradley Steele
+ */
+public abstract class PaginatedBInventory<T> extends AbstractBInventory {
+
+    private static final int DEFAULT_CACHED_PAGES = 4;
+
+    protected final BPlugin plugin;
+
+    private final PageSource<T> source;
+    private final int[] contentSlots;
+    private final int[] slotIndexes;
+    // Guarded by pages, along with generation changes.
+    private final Map<Integer, ItemStack[]> pages;
+    private final Set<Integer> prefetching = new HashSet<>();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private int page;
+    private int previousSlot = -1;
+    private int nextSlot = -1;
+    private ItemStack previousStack;
+    private ItemStack nextStack;
+
+    /**
+     * @param plugin       the plugin used to schedule prefetching.
+     * @param size         the number of slots, a multiple of 9.
+     * @param title        the inventory title.
+     * @param source       the elements to display.
+     * @param contentSlots the slots elements are displayed in, in order.
+     */
+    protected PaginatedBInventory(BPlugin plugin, int size, String title, PageSource<T> source, int... contentSlots) {
+        super(size, title);
+
+        this.plugin = plugin;
+        this.source = source;
+        this.contentSlots = contentSlots.clone();
+        this.slotIndexes = new int[size];
+        this.pages = Collections.synchronizedMap(new LinkedHashMap<Integer, ItemStack[]>(16, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ItemStack[]> eldest) {
+                return size() > DEFAULT_CACHED_PAGES;
+            }
+        });
+
+        for (int slot = 0; slot < size; slot++) {
+            slotIndexes[slot] = -1;
+        }
+
+        SlotHandler contentHandler = (event, clicker) -> {
+            int index = getIndex(event.getRawSlot());
+
+            if (index >= 0) {
+                onElementClick(event, clicker, source.get(index), index);
+            }
+        };
+
+        for (int i = 0; i < this.contentSlots.length; i++) {
+            slotIndexes[this.contentSlots[i]] = i;
+            setHandler(this.contentSlots[i], contentHandler);
+        }
+    }
+
+    /**
+     * Builds the stack displaying an element. May be called off the
+     * main thread when prefetching.
+     *
+     * @param element the element to display.
+     * @param index   the element's index in the source.
+     * @return the stack to display.
+     */
+    protected abstract ItemStack renderElement(T element, int index);
+
+    /**
+     * Called when a slot displaying an element is clicked.
+     *
+     * @param event   the event fired upon clicking.
+     * @param clicker player who clicked the inventory.
+     * @param element the element displayed in the clicked slot.
+     * @param index   the element's index in the source.
+     */
+    public void onElementClick(InventoryClickEvent event, Player clicker, T element, int index) {}
+
+    /**
+     * Draws the controls and any static decoration around the
+     * page contents.
+     *
+     * @param frame the frame to draw to.
+     */
+    protected void drawControls(InventoryFrame frame) {
+        if (previousSlot >= 0 && hasPreviousPage()) {
+            frame.set(previousSlot, previousStack);
+        }
+
+        if (nextSlot >= 0 && hasNextPage()) {
+            frame.set(nextSlot, nextStack);
+        }
+    }
+
+    @Override
+    protected final void draw(InventoryFrame frame) {
+        ItemStack[] contents = getPage(page);
+
+        for (int i = 0; i < contents.length; i++) {
+            frame.set(contentSlots[i], contents[i]);
+        }
+
+        drawControls(frame);
+        prefetch(page + 1);
+    }
+
+    /**
+     * @param slot the raw slot.
+     * @return the index in the source of the element displayed in
+     *         the slot, or {@code -1} if none.
+     */
+    public int getIndex(int slot) {
+        if (slot < 0 || slot >= slotIndexes.length || slotIndexes[slot] < 0) {
+            return -1;
+        }
+
+        int index = page * contentSlots.length + slotIndexes[slot];
+        return index < source.size() ? index : -1;
+    }
+
+    /**
+     * Discards built pages and redraws the current page, should be
+     * called when the source has changed.
+     */
+    public void refresh() {
+        synchronized (pages) {
+            generation.incrementAndGet();
+            pages.clear();
+            prefetching.clear();
+        }
+
+        page = Math.min(page, getPageCount() - 1);
+        render();
+    }
+
+    private ItemStack[] getPage(int page) {
+        ItemStack[] contents = pages.get(page);
+
+        if (contents == null) {
+            contents = buildPage(page);
+            pages.put(page, contents);
+        }
+
+        return contents;
+    }
+
+    private ItemStack[] buildPage(int page) {
+        int start = page * contentSlots.length;
+        int end = Math.min(start + contentSlots.length, source.size());
+        ItemStack[] contents = new ItemStack[Math.max(0, end - start)];
+
+        for (int index = start; index < end; index++) {
+            contents[index - start] = renderElement(source.get(index), index);
+        }
+
+        return contents;
+    }
+
+    private void prefetch(int page) {
+        if (page >= getPageCount() || !plugin.isEnabled()) {
+            return;
+        }
+
+        int expected;
+
+        synchronized (pages) {
+            // Already built or being built.
+            if (pages.containsKey(page) || !prefetching.add(page)) {
+                return;
+            }
+
+            expected = generation.get();
+        }
+
+        try {
+            plugin.getExecutor().execute(() -> {
+                ItemStack[] contents = null;
+
+                try {
+                    contents = buildPage(page);
+                } finally {
+                    synchronized (pages) {
+                        // Discard pages built from a source which has since changed.
+                        if (generation.get() == expected) {
+                            prefetching.remove(page);
+
+                            if (contents != null) {
+                                pages.putIfAbsent(page, contents);
+                            }
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Prefetching is best effort, the page is built when shown.
+            synchronized (pages) {
+                if (generation.get() == expected) {
+                    prefetching.remove(page);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the current zero-based page.
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * @param page the zero-based page to display.
+     */
+    public void setPage(int page) {
+        this.page = Math.max(0, Math.min(page, getPageCount() - 1));
+        render();
+    }
+
+    /**
+     * @return the number of pages, at least one.
+     */
+    public int getPageCount() {
+        return Math.max(1, (source.size() + contentSlots.length - 1) / contentSlots.length);
+    }
+
+    /**
+     * @return {@code true} if there is a page before the current page.
+     */
+    public boolean hasPreviousPage() {
+        return page > 0;
+    }
+
+    /**
+     * @return {@code true} if there is a page after the current page.
+     */
+    public boolean hasNextPage() {
+        return page < getPageCount() - 1;
+    }
+
+    /**
+     * @return the elements displayed.
+     */
+    public PageSource<T> getSource() {
+        return source;
+    }
+
+    /**
+     * @param slot  the slot of the previous page control.
+     * @param stack the stack displayed as the control.
+     */
+    public void setPreviousControl(int slot, ItemStack stack) {
+        if (previousSlot >= 0) {
+            setHandler(previousSlot, null);
+        }
+
+        this.previousSlot = slot;
+        this.previousStack = stack;
+
+        setHandler(slot, (event, clicker) -> {
+            if (hasPreviousPage()) {
+                setPage(page - 1);
+            }
+        });
+    }
+
+    /**
+     * @param slot  the slot of the next page control.
+     * @param stack the stack displayed as the control.
+     */
+    public void setNextControl(int slot, ItemStack stack) {
+        if (nextSlot >= 0) {
+            setHandler(nextSlot, null);
+        }
+
+        this.nextSlot = slot;
+        this.nextStack = stack;
+
+        setHandler(slot, (event, clicker) -> {
+            if (hasNextPage()) {
+                setPage(page + 1);
+            }
+        });
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.inventory;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+/**
+ * Handles clicks on a single slot of an {@link AbstractBInventory}.
+ *
+ * @author Bradley Steele
+ * @see AbstractBInventory#setHandler(int, SlotHandler)
+ */
+@FunctionalInterface
+public interface SlotHandler {
+
+    /**
+     * @param event   the event fired upon clicking.
+     * @param clicker player who clicked the slot.
+     */
+    void onClick(InventoryClickEvent event, Player clicker);
+
+}
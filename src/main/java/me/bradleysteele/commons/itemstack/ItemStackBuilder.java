@@ -19,6 +19,8 @@ package me.bradleysteele.commons.itemstack;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import me.bradleysteele.commons.itemstack.custom.CustomItem;
+import me.bradleysteele.commons.itemstack.custom.CustomItemRegistry;
 import me.bradleysteele.commons.itemstack.nbt.NBTItemStack;
 import me.bradleysteele.commons.util.Messages;
 import me.bradleysteele.commons.util.reflect.Reflection;
@@ -341,6 +343,19 @@ public class ItemStackBuilder {
         return this;
     }
 
+    /**
+     * Stamps the stack with the custom item's numeric id, allowing it
+     * to be identified by {@link CustomItemRegistry#identify(ItemStack)}.
+     *
+     * @param type the custom item type.
+     * @return this item stack builder.
+     *
+     * @see CustomItemRegistry
+     */
+    public ItemStackBuilder withCustomItem(CustomItem type) {
+        return withNBTInteger(CustomItemRegistry.NBT_KEY, type.getId());
+    }
+
     /**
      * @return stack type.
      */
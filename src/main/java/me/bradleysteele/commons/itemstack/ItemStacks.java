@@ -181,6 +181,18 @@ public final class ItemStacks {
         return toNBTItemStack(stack).getInteger(key);
     }
 
+    /**
+     * Reads an integer from the stack's root NBT tag without cloning
+     * the stack, see {@link NBTItemStack#peekInteger(ItemStack, String)}.
+     *
+     * @param stack the stack to read.
+     * @param key   the NBT key.
+     * @return the integer mapped to the key, or {@code 0} if absent.
+     */
+    public static int peekNBTInteger(ItemStack stack, String key) {
+        return NBTItemStack.peekInteger(stack, key);
+    }
+
     public static Double getNBTDouble(ItemStack stack, String key) {
         return toNBTItemStack(stack).getDouble(key);
     }
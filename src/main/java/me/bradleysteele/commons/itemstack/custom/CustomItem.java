@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.itemstack.custom;
+
+import me.bradleysteele.commons.itemstack.ItemStackBuilder;
+import me.bradleysteele.commons.util.Preconditions;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Locale;
+
+/**
+ * A {@link CustomItem} is a type of item identified by a compact
+ * numeric id stamped into its NBT. Ids are persisted with the stack
+ * and must therefore remain stable between restarts.
+ *
+ * @author Bradley Steele
+ * @see CustomItemRegistry
+ */
+public class CustomItem {
+
+    private final int id;
+    private final String name;
+    private final ItemStackBuilder template;
+
+    /**
+     * @param id       the numeric id, must be positive and at most
+     *                 {@link CustomItemRegistry#MAX_ID} to register.
+     * @param name     the case-insensitive name of the type.
+     * @param template the builder used as the base of new stacks.
+     */
+    public CustomItem(int id, String name, ItemStackBuilder template) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("id must be positive.");
+        }
+
+        Preconditions.nonNull(name, "name cannot be null.");
+        Preconditions.nonNull(template, "template cannot be null.");
+
+        this.id = id;
+        this.name = name.toLowerCase(Locale.ENGLISH);
+        this.template = template;
+    }
+
+    /**
+     * @return a new stack of this type, stamped with its id.
+     */
+    public ItemStack build() {
+        return template.deepClone()
+                .withCustomItem(this)
+                .build();
+    }
+
+    /**
+     * @param stack the stack to test.
+     * @return {@code true} if the stack is of this type.
+     */
+    public boolean isType(ItemStack stack) {
+        return CustomItemRegistry.peekId(stack) == id;
+    }
+
+    /**
+     * @return the numeric id stamped into stacks of this type.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the lowercase name of this type.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a copy of the builder used as the base of new stacks.
+     */
+    public ItemStackBuilder getTemplate() {
+        return template.deepClone();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.itemstack.custom;
+
+import com.google.common.collect.Maps;
+import me.bradleysteele.commons.itemstack.ItemStacks;
+import me.bradleysteele.commons.util.Preconditions;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The {@link CustomItemRegistry} maps the numeric ids stamped into
+ * stacks back to their {@link CustomItem} type.
+ * <p>
+ * Identification reads the id straight from the stack's NMS handle
+ * and indexes an array, neither the stack nor its tag is copied. This
+ * makes {@link #identify(ItemStack)} cheap enough to be called from
+ * high frequency events such as interact, click and damage events.
+ *
+ * @author Bradley Steele
+ */
+public final class CustomItemRegistry {
+
+    /**
+     * The root NBT key holding the custom item id.
+     */
+    public static final String NBT_KEY = "bcommons_custom_item";
+
+    /**
+     * The largest id which may be registered, ids index an array so
+     * should be kept compact.
+     */
+    public static final int MAX_ID = 65535;
+
+    private static final CustomItemRegistry instance = new CustomItemRegistry();
+
+    public static CustomItemRegistry get() {
+        return instance;
+    }
+
+    // Indexed by id, published by replacing the array so readers
+    // never need to lock.
+    private volatile CustomItem[] types = new CustomItem[16];
+    private final Map<String, CustomItem> byName = Maps.newHashMap();
+
+    private CustomItemRegistry() {}
+
+    /**
+     * @param stack the stack to read.
+     * @return the id stamped into the stack, or {@code 0} if none.
+     */
+    static int peekId(ItemStack stack) {
+        return ItemStacks.peekNBTInteger(stack, NBT_KEY);
+    }
+
+    /**
+     * @param type the custom item type to register.
+     * @return the registered type.
+     *
+     * @throws IllegalArgumentException if the id is above
+     *                                  {@link #MAX_ID}, or the id or
+     *                                  name is already registered.
+     */
+    public synchronized CustomItem register(CustomItem type) {
+        Preconditions.nonNull(type, "type cannot be null.");
+
+        CustomItem[] current = types;
+        int id = type.getId();
+
+        if (id <= 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("custom item id " + id + " must be between 1 and " + MAX_ID + ".");
+        }
+
+        if (id < current.length && current[id] != null) {
+            throw new IllegalArgumentException("custom item id " + id + " is already registered to " + current[id].getName() + ".");
+        }
+
+        if (byName.containsKey(type.getName())) {
+            throw new IllegalArgumentException("custom item name " + type.getName() + " is already registered.");
+        }
+
+        CustomItem[] next = Arrays.copyOf(current, Math.max(current.length, id + 1));
+        next[id] = type;
+
+        byName.put(type.getName(), type);
+        types = next;
+
+        return type;
+    }
+
+    /**
+     * @param type the custom item type to unregister.
+     */
+    public synchronized void unregister(CustomItem type) {
+        CustomItem[] current = types;
+        int id = type.getId();
+
+        if (id >= current.length || current[id] != type) {
+            return;
+        }
+
+        CustomItem[] next = current.clone();
+        next[id] = null;
+
+        byName.remove(type.getName());
+        types = next;
+    }
+
+    /**
+     * Identifies the custom item type of the provided stack without
+     * cloning it.
+     *
+     * @param stack the stack to identify.
+     * @return the stack's custom item type, or {@code null} if the
+     *         stack is not a registered custom item.
+     */
+    public CustomItem identify(ItemStack stack) {
+        int id = peekId(stack);
+
+        if (id <= 0) {
+            return null;
+        }
+
+        CustomItem[] current = types;
+        return id < current.length ? current[id] : null;
+    }
+
+    /**
+     * @param stack the stack to test.
+     * @return {@code true} if the stack is a registered custom item.
+     */
+    public boolean isCustomItem(ItemStack stack) {
+        return identify(stack) != null;
+    }
+
+    /**
+     * @param id the numeric id.
+     * @return the custom item type, or {@code null} if none.
+     */
+    public CustomItem getType(int id) {
+        CustomItem[] current = types;
+        return id > 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * @param name the case-insensitive name.
+     * @return the custom item type, or {@code null} if none.
+     */
+    public synchronized CustomItem getType(String name) {
+        return name != null ? byName.get(name.toLowerCase(Locale.ENGLISH)) : null;
+    }
+
+    /**
+     * @return an unmodifiable snapshot of the registered types.
+     */
+    public synchronized Collection<CustomItem> getTypes() {
+        return Collections.unmodifiableCollection(Maps.newHashMap(byName).values());
+    }
+}
@@ -16,13 +16,66 @@
 
 package me.bradleysteele.commons.itemstack.nbt;
 
+import me.bradleysteele.commons.nms.NMSReflection;
+import me.bradleysteele.commons.util.reflect.Reflection;
 import org.bukkit.inventory.ItemStack;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
 /**
  * @author Bradley Steele
  */
 public class NBTItemStack extends NBTCompound {
 
+    private static final Class<?> CRAFT_ITEM_STACK = NMSReflection.getCBClass("inventory.CraftItemStack");
+    private static final Field CIS_HANDLE = Reflection.getField(CRAFT_ITEM_STACK, "handle");
+    private static final Method CIS_AS_NMS_COPY = Reflection.getMethod(CRAFT_ITEM_STACK, "asNMSCopy", ItemStack.class);
+
+    private static final Class<?> NMS_ITEM_STACK = NMSReflection.isOldPackageStructure()
+            ? NMSReflection.getNMSClass("ItemStack")
+            : NMSReflection.getNMSClass("world.item.ItemStack");
+    private static final Method NIS_GET_TAG = Reflection.getMethod(NMS_ITEM_STACK, "getTag");
+
+    private static final Class<?> NBT_TAG_COMPOUND = NMSReflection.isOldPackageStructure()
+            ? NMSReflection.getNMSClass("NBTTagCompound")
+            : NMSReflection.getNMSClass("nbt.NBTTagCompound");
+    private static final Method NTC_GET_INT = Reflection.getMethod(NBT_TAG_COMPOUND, "getInt", String.class);
+
+    /**
+     * Reads an integer from the root tag of the provided stack without
+     * copying it, unlike {@link #getInteger(String)} on a new instance.
+     * Stacks backed by a {@code CraftItemStack} are read straight from
+     * their NMS handle, other stacks fall back to a single NMS copy.
+     *
+     * @param stack the stack to read.
+     * @param key   the NBT key.
+     * @return the integer mapped to the key, or {@code 0} if absent.
+     */
+    public static int peekInteger(ItemStack stack, String key) {
+        if (stack == null) {
+            return 0;
+        }
+
+        Object nmsStack = CIS_HANDLE != null && CRAFT_ITEM_STACK.isInstance(stack)
+                ? Reflection.getFieldValue(CIS_HANDLE, stack)
+                : Reflection.invokeMethod(CIS_AS_NMS_COPY, CRAFT_ITEM_STACK, stack);
+
+        if (nmsStack == null) {
+            return 0;
+        }
+
+        // Untagged stacks have no compound, do not allocate one.
+        Object tag = Reflection.invokeMethod(NIS_GET_TAG, nmsStack);
+
+        if (tag == null) {
+            return 0;
+        }
+
+        Integer value = Reflection.invokeMethod(NTC_GET_INT, tag, key);
+        return value != null ? value : 0;
+    }
+
     private ItemStack itemStack;
 
     public NBTItemStack(ItemStack stack) {
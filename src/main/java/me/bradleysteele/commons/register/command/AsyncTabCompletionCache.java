@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import com.google.common.collect.Maps;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds each sender's in-flight {@link BCommandAsyncTabCompleter}
+ * request, so the asynchronous event and the synchronous fallback for
+ * the same buffer share one query, along with the sender's last
+ * completed suggestions.
+ *
+ * @author Bradley Steele
+ */
+final class AsyncTabCompletionCache {
+
+    private static final long EXPIRY = TimeUnit.SECONDS.toNanos(10);
+    private static final int PRUNE_THRESHOLD = 64;
+
+    private static final Map<Object, Entry> entries = Maps.newConcurrentMap();
+
+    private AsyncTabCompletionCache() {}
+
+    /**
+     * @return the sender's in-flight or completed request for the
+     *         arguments, starting one if there is none.
+     */
+    static CompletableFuture<List<String>> request(CommandSender sender, String alias, String[] args,
+                                                   BCommandAsyncTabCompleter completer) {
+        Object key = key(sender);
+        String request = alias.toLowerCase(Locale.ENGLISH) + ' ' + String.join(" ", args);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+
+        if (entry != null && now - entry.time < EXPIRY && entry.request.equals(request)
+                && !entry.future.isCompletedExceptionally()) {
+            return entry.future;
+        }
+
+        CompletableFuture<List<String>> future = completer.tabCompleteAsync(sender, alias, args);
+
+        if (entries.size() >= PRUNE_THRESHOLD) {
+            entries.values().removeIf(e -> now - e.time >= EXPIRY);
+        }
+
+        entries.put(key, new Entry(request, future, entry != null ? entry.latest() : null, now));
+        return future;
+    }
+
+    /**
+     * @param sender the sender.
+     * @param prefix the argument being completed.
+     * @return the sender's most recently completed suggestions which
+     *         start with the prefix, or an empty list.
+     */
+    static List<String> last(CommandSender sender, String prefix) {
+        Entry entry = entries.get(key(sender));
+        List<String> latest = entry != null ? entry.latest() : null;
+        List<String> results = new ArrayList<>();
+
+        if (latest != null) {
+            for (String result : latest) {
+                if (result.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    results.add(result);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    private static Object key(CommandSender sender) {
+        return sender instanceof Player ? ((Player) sender).getUniqueId() : sender.getName();
+    }
+
+    private static final class Entry {
+
+        private final String request;
+        private final CompletableFuture<List<String>> future;
+        private final List<String> previous;
+        private final long time;
+
+        private Entry(String request, CompletableFuture<List<String>> future, List<String> previous, long time) {
+            this.request = request;
+            this.future = future;
+            this.previous = previous;
+            this.time = time;
+        }
+
+        private List<String> latest() {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                List<String> result = future.getNow(null);
+
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            return previous;
+        }
+    }
+}
@@ -17,23 +17,36 @@
 package me.bradleysteele.commons.register.command;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import me.bradleysteele.commons.BPlugin;
+import me.bradleysteele.commons.concurrent.BExecutorQueue;
 import me.bradleysteele.commons.register.Registrable;
+import me.bradleysteele.commons.register.command.argument.Argument;
+import me.bradleysteele.commons.register.command.argument.ArgumentContext;
+import me.bradleysteele.commons.register.command.argument.ArgumentSchema;
+import me.bradleysteele.commons.util.Messages;
 import me.bradleysteele.commons.util.Players;
-import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Bradley Steele
  */
 public abstract class BCommand implements Registrable, BCommandExecutor, BCommandTabCompleter {
 
+    private static final Locale LOCALE = Locale.ENGLISH;
+
     protected BPlugin plugin;
 
     private String name;
@@ -41,17 +54,30 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
     private String usage;
     private String permission;
     private List<String> permissionDenyMessage;
+    private boolean cachePermissions;
     private boolean allowConsole;
+    private RateLimiter rateLimiter;
+    private String rateLimitMessage = "&cPlease wait &e{remaining}s &cbefore using this command again.";
     private List<String> aliases = Lists.newArrayList();
     private List<BCommand> children = Lists.newArrayList();
+    private final Map<String, BCommand> childAliases = Maps.newHashMap();
+    private Argument<?>[] arguments;
+    private ArgumentSchema schema;
 
     private boolean sync = true;
+    private BExecutorQueue executorQueue;
+    private final CommandMetrics metrics = new CommandMetrics();
     private BCommandExecutor executor = this;
     private BCommandTabCompleter tabCompleter = this;
     private BCommand parent;
+    private PermissionCache permissionCache;
 
     @Override
     public final void register() {
+        if (arguments != null) {
+            schema = ArgumentSchema.compile(arguments);
+        }
+
         // Update children which were set in the constructor, as
         // the plugin is injected after the constructor.
         children.forEach(child -> {
@@ -63,29 +89,46 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
         });
 
         if (isRoot()) {
+            permissionCache = new PermissionCache();
+
             if (BCommandBukkit.getCommandMap().register(plugin.getName(), new BCommandBukkit(this))) {
                 plugin.getConsole().info("Registered command: &a" + getName() + " &rwith &e" + children.size() + " &rchildren.");
             } else {
                 plugin.getConsole().error("Failed to register command: &c" + getName() + "&r.");
             }
+
+            BCommandBukkit.track(plugin.getName(), this);
         }
     }
 
+    /**
+     * Must be overridden unless
+     * {@link #execute(CommandSender, BCommandArgs)} or
+     * {@link #execute(CommandSender, ArgumentContext)} is overridden
+     * instead, or another executor is set. Otherwise reports the command
+     * as not implemented.
+     *
+     * @param sender command sender.
+     * @param args   arguments passed to the command.
+     */
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        plugin.getConsole().error("Command &c%s &rdoes not implement an execute method.", getPath());
+        sender.sendMessage(Messages.colour("&cThis command is not implemented."));
+    }
+
     @Override
     public List<String> tabComplete(CommandSender sender, String alias, String[] args) {
         return null;
     }
 
-    final void executeCalled(CommandSender sender, String[] args) {
-        if (!children.isEmpty() && args.length > 0) {
-            for (BCommand child : children) {
-                if (child.getAliases().stream().anyMatch(alias -> alias.equalsIgnoreCase(args[0]))) {
-                    List<String> list = Lists.newArrayList(args);
-                    list.remove(0);
+    final void executeCalled(CommandSender sender, BCommandArgs args) {
+        if (!args.isEmpty()) {
+            BCommand child = getChild(args.get(0));
 
-                    child.executeCalled(sender, list.toArray(new String[0]));
-                    return;
-                }
+            if (child != null) {
+                child.executeCalled(sender, args.shift());
+                return;
             }
         }
 
@@ -94,7 +137,20 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
             return;
         }
 
-        if (permission != null && !sender.hasPermission(permission)) {
+        if (rateLimiter != null && sender instanceof Entity) {
+            long wait = rateLimiter.tryAcquire(((Entity) sender).getUniqueId());
+
+            if (wait > 0) {
+                if (rateLimitMessage != null && !rateLimitMessage.isEmpty()) {
+                    String remaining = String.format(LOCALE, "%.1f", wait / 1e9);
+                    sender.sendMessage(Messages.colour(rateLimitMessage.replace("{remaining}", remaining)));
+                }
+
+                return;
+            }
+        }
+
+        if (!hasPermission(sender)) {
             if (permissionDenyMessage != null && !permissionDenyMessage.isEmpty() && (sender instanceof Player)) {
                 Players.sendMessage(Players.getPlayer(sender), permissionDenyMessage);
             }
@@ -102,32 +158,184 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
             return;
         }
 
+        if (schema != null) {
+            // A context per invocation, a command may dispatch itself
+            // again from within its executor.
+            ArgumentContext parsed = schema.newContext();
+
+            if (!schema.parse(sender, args, parsed)) {
+                // The error contains raw player input, only colour our template.
+                sender.sendMessage(Messages.colour("&c") + parsed.getError());
+                sender.sendMessage(Messages.colour("&cUsage: &7" + getUsage()));
+                return;
+            }
+
+            invoke(sender, () -> executor.execute(sender, parsed));
+            return;
+        }
+
         // All tests past, execute.
+        invoke(sender, () -> executor.execute(sender, args));
+    }
+
+    private void invoke(CommandSender sender, Runnable task) {
         if (isSync()) {
-            executor.execute(sender, args);
-        } else {
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> executor.execute(sender, args));
+            measure(sender, task, false);
+            return;
         }
+
+        long submitted = System.nanoTime();
+
+        dispatch(sender, () -> {
+            metrics.recordWait(System.nanoTime() - submitted);
+            measure(sender, task, true);
+        });
     }
 
-    final List<String> tabCalled(CommandSender sender, String alias, String[] args) {
-        if (permission != null && !sender.hasPermission(permission)) {
+    private void measure(CommandSender sender, Runnable task, boolean async) {
+        long start = System.nanoTime();
+
+        try {
+            task.run();
+        } catch (RuntimeException | Error e) {
+            metrics.recordError(async);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.recordRun(async, elapsed);
+
+            if (CommandMetrics.isSlow(elapsed)) {
+                plugin.getConsole().warn("Slow command &e%s &rtook &e%.2fms &r(%s) for &e%s&r.",
+                        getPath(), elapsed / 1e6, async ? "async" : "sync", sender.getName());
+            }
+        }
+    }
+
+    /**
+     * @param sender the sender to check.
+     * @return {@code true} if the sender has this command's permission,
+     *         or it requires none.
+     */
+    public boolean hasPermission(CommandSender sender) {
+        if (permission == null) {
+            return true;
+        }
+
+        PermissionCache cache = isCachePermissions() ? getPermissionCache() : null;
+        return cache != null ? cache.hasPermission(sender, permission) : sender.hasPermission(permission);
+    }
+
+    private void dispatch(CommandSender sender, Runnable task) {
+        try {
+            if (executorQueue != null) {
+                // The queue may reject the task after accepting it.
+                executorQueue.execute(task, e -> rejected(sender, e));
+            } else {
+                plugin.getExecutor().execute(task);
+            }
+        } catch (RejectedExecutionException e) {
+            rejected(sender, e);
+        }
+    }
+
+    private Boolean peekPermission(CommandSender sender) {
+        if (permission == null) {
+            return true;
+        }
+
+        PermissionCache cache = isCachePermissions() ? getPermissionCache() : null;
+        return cache != null ? cache.peek(sender, permission) : null;
+    }
+
+    private void rejected(CommandSender sender, RejectedExecutionException e) {
+        sender.sendMessage(Messages.colour("&cThe server is busy, please try again shortly."));
+        plugin.getConsole().warn("Rejected execution of command &e%s&r: %s", getName(), e.getMessage());
+    }
+
+    final List<String> tabCalled(CommandSender sender, String alias, BCommandArgs args) {
+        if (!hasPermission(sender)) {
             return null;
         }
 
-        if (!children.isEmpty() && args.length > 0) {
-            for (BCommand child : children) {
-                if (child.getAliases().stream().anyMatch(a -> a.equalsIgnoreCase(args[0]))) {
-                    List<String> list = Lists.newArrayList(args);
-                    list.remove(0);
+        if (!args.isEmpty()) {
+            BCommand child = getChild(args.get(0));
 
-                    return child.tabCalled(sender, alias, list.toArray(new String[0]));
-                }
+            if (child != null) {
+                return child.tabCalled(sender, alias, args.shift());
+            }
+        }
+
+        // No children, invoke this command's tab completer
+        List<String> result = tabCompleter.tabComplete(sender, alias, args.toArray());
+
+        if (result == null && schema != null) {
+            result = schema.complete(sender, args);
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves the command being completed as {@code tabCalled} does
+     * and, if its completer is a {@link BCommandAsyncTabCompleter},
+     * requests its suggestions. May be invoked off the main thread, so
+     * permissions are only read from the tree's {@link PermissionCache},
+     * never queried.
+     *
+     * @param sender tab sender.
+     * @param alias  alias of the command being tabbed.
+     * @param args   arguments passed.
+     * @return future suggestions, or {@code null} if the command must be
+     *         completed synchronously, including when a permission
+     *         decision is not cached.
+     */
+    public final CompletableFuture<List<String>> tabCalledAsync(CommandSender sender, String alias, String[] args) {
+        BCommand command = this;
+        BCommandArgs view = BCommandArgs.of(args);
+
+        while (true) {
+            if (!Boolean.TRUE.equals(command.peekPermission(sender))) {
+                return null;
+            }
+
+            BCommand child = !view.isEmpty() ? command.getChild(view.get(0)) : null;
+
+            if (child == null) {
+                break;
             }
+
+            command = child;
+            view = view.shift();
         }
 
-        // No children, invoke this class' tab completer
-        return tabComplete(sender, alias, args);
+        if (!(command.tabCompleter instanceof BCommandAsyncTabCompleter)) {
+            return null;
+        }
+
+        return AsyncTabCompletionCache.request(sender, alias, view.toArray(), (BCommandAsyncTabCompleter) command.tabCompleter);
+    }
+
+    /**
+     * Rebuilds the case-insensitive index of child aliases. Where
+     * children share an alias, the first child added takes precedence.
+     */
+    private void indexChildren() {
+        childAliases.clear();
+
+        for (BCommand child : children) {
+            for (String alias : child.aliases) {
+                childAliases.putIfAbsent(alias.toLowerCase(LOCALE), child);
+            }
+        }
+    }
+
+    /**
+     * @param alias case-insensitive alias of the child.
+     * @return the child command with the alias, or {@code null} if
+     *         none.
+     */
+    public BCommand getChild(String alias) {
+        return childAliases.isEmpty() ? null : childAliases.get(alias.toLowerCase(LOCALE));
     }
 
     /**
@@ -150,10 +358,37 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
     }
 
     /**
+     * @return the command's name prefixed with its parents' names, such
+     *         as {@code /parent child}.
+     */
+    public String getPath() {
+        StringBuilder builder = new StringBuilder(getName());
+
+        for (BCommand command = parent; command != null; command = command.parent) {
+            builder.insert(0, command.getName() + " ");
+        }
+
+        return builder.insert(0, "/").toString();
+    }
+
+    /**
+     * If no usage is set, the usage is generated from the command's
+     * path and declared arguments.
+     *
      * @return command's usage.
      */
     public String getUsage() {
-        return usage != null ? usage : "/" + name;
+        if (usage != null) {
+            return usage;
+        }
+
+        StringBuilder builder = new StringBuilder(getPath());
+
+        if (schema != null && schema.size() > 0) {
+            builder.append(' ').append(schema.getUsage());
+        }
+
+        return builder.toString();
     }
 
     /**
@@ -163,6 +398,22 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
         return permission;
     }
 
+    /**
+     * @return the cache of permission decisions shared by this command's
+     *         tree, or {@code null} if the tree is not registered.
+     */
+    public PermissionCache getPermissionCache() {
+        return getRoot().permissionCache;
+    }
+
+    /**
+     * @return {@code true} if permission decisions for this command, or
+     *         any of its parents, are cached.
+     */
+    public boolean isCachePermissions() {
+        return cachePermissions || (parent != null && parent.isCachePermissions());
+    }
+
     /**
      * @return message to send to the sender if they do not have permission to
      *         execute the command.
@@ -192,6 +443,21 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
         return Collections.unmodifiableList(children);
     }
 
+    /**
+     * @return the declared arguments, or {@code null} if none.
+     */
+    public Argument<?>[] getArguments() {
+        return arguments != null ? arguments.clone() : null;
+    }
+
+    /**
+     * @return the compiled arguments, or {@code null} if none are
+     *         declared or the command is not registered.
+     */
+    public ArgumentSchema getArgumentSchema() {
+        return schema;
+    }
+
     /**
      * @return {@code true} if the command is ran on the main thread.
      */
@@ -199,6 +465,37 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
         return sync;
     }
 
+    /**
+     * @return execution counts and latencies of this command.
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the limiter applied to senders of this command, or
+     *         {@code null} if unlimited.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return the message sent to rate limited senders.
+     */
+    public String getRateLimitMessage() {
+        return rateLimitMessage;
+    }
+
+    /**
+     * @return the queue async executions are submitted to, or
+     *         {@code null} if submitted directly to the plugin's
+     *         executor.
+     */
+    public BExecutorQueue getExecutorQueue() {
+        return executorQueue;
+    }
+
     /**
      * @return the command's executor.
      */
@@ -281,6 +578,18 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
         this.permission = permission;
     }
 
+    /**
+     * Caches permission decisions for this command and its children in
+     * the tree's {@link PermissionCache}. Decisions are refreshed when a
+     * player changes world, is opped or deopped, or after the cache
+     * duration, other permission changes may be seen late.
+     *
+     * @param cachePermissions if permission decisions should be cached.
+     */
+    public void setCachePermissions(boolean cachePermissions) {
+        this.cachePermissions = cachePermissions;
+    }
+
     /**
      * @param permissionDenyMessage the messages to send to the sender if they do not have permission.
      */
@@ -301,6 +610,10 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
     public void setAliases(List<String> aliases) {
         this.aliases.clear();
         aliases.forEach(this::addAlias);
+
+        if (parent != null) {
+            parent.indexChildren();
+        }
     }
 
     /**
@@ -319,6 +632,10 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
     public void addAlias(String alias) {
         if (!aliases.contains(alias)) {
             aliases.add(alias);
+
+            if (parent != null) {
+                parent.indexChildren();
+            }
         }
     }
 
@@ -328,6 +645,7 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
     public void setChildren(List<BCommand> children) {
         this.children.clear();
         children.forEach(this::addChild);
+        indexChildren();
     }
 
     /**
@@ -343,11 +661,26 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
     public void addChild(BCommand child) {
         if (!children.contains(child)) {
             child.plugin = plugin;
-            child.parent = parent;
+            child.parent = this;
             children.add(child);
+            indexChildren();
         }
     }
 
+    /**
+     * Declares the command's arguments. Arguments are compiled when the
+     * command is registered and parsed before execution, the parsed
+     * values are passed to
+     * {@link BCommandExecutor#execute(CommandSender, ArgumentContext)}.
+     * The declared types also provide tab completion when the command's
+     * tab completer does not.
+     *
+     * @param arguments the arguments, in order.
+     */
+    public void setArguments(Argument<?>... arguments) {
+        this.arguments = arguments.clone();
+    }
+
     /**
      * @param sync if the command is to be run on the main thread.
      */
@@ -355,6 +688,61 @@ public abstract class BCommand implements Registrable, BCommandExecutor, BComman
         this.sync = sync;
     }
 
+    /**
+     * Limits how often each player or entity may execute this command,
+     * the console is never limited. Checked before the sender's
+     * permission.
+     *
+     * @param rateLimiter the limiter, may be shared between commands,
+     *                    or {@code null} to remove the limit.
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * @param duration the time each sender must wait between
+     *                 executions.
+     * @param unit     the unit of the duration.
+     *
+     * @see RateLimiter#cooldown(long, TimeUnit)
+     */
+    public void setCooldown(long duration, TimeUnit unit) {
+        setRateLimiter(RateLimiter.cooldown(duration, unit));
+    }
+
+    /**
+     * @param permits the number of executions allowed in a burst.
+     * @param period  the time taken for all permits to refill.
+     * @param unit    the unit of the period.
+     */
+    public void setRateLimit(int permits, long period, TimeUnit unit) {
+        setRateLimiter(new RateLimiter(permits, period, unit));
+    }
+
+    /**
+     * @param rateLimitMessage the message sent to rate limited senders,
+     *                         {@code {remaining}} is replaced with the
+     *                         seconds left to wait.
+     */
+    public void setRateLimitMessage(String rateLimitMessage) {
+        this.rateLimitMessage = rateLimitMessage;
+    }
+
+    /**
+     * Limits concurrent async executions of this command, ignored if
+     * the command is run on the main thread.
+     *
+     * @param executorQueue the queue to submit async executions to, or
+     *                      {@code null} to submit directly to the
+     *                      plugin's executor.
+     *
+     * @see me.bradleysteele.commons.concurrent.BExecutor#createQueue(String, int, int)
+     */
+    public void setExecutorQueue(BExecutorQueue executorQueue) {
+        this.executorQueue = executorQueue;
+    }
+
     /**
      * @param executor the command's executor.
      */
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import java.util.Arrays;
+
+/**
+ * A read-only view of the arguments passed to a {@link BCommand},
+ * starting at an offset into the original argument array. Views are
+ * passed down the command tree without copying the arguments at each
+ * level.
+ *
+ * @author Bradley Steele
+ */
+public final class BCommandArgs {
+
+    private static final String[] EMPTY = new String[0];
+
+    /**
+     * @param args the arguments.
+     * @return a view of all of the arguments.
+     */
+    public static BCommandArgs of(String[] args) {
+        return new BCommandArgs(args != null ? args : EMPTY, 0);
+    }
+
+    private final String[] args;
+    private final int offset;
+
+    private String[] array;
+
+    private BCommandArgs(String[] args, int offset) {
+        this.args = args;
+        this.offset = offset;
+    }
+
+    /**
+     * @return the number of arguments in this view.
+     */
+    public int size() {
+        return args.length - offset;
+    }
+
+    /**
+     * @return {@code true} if there are no arguments in this view.
+     */
+    public boolean isEmpty() {
+        return size() <= 0;
+    }
+
+    /**
+     * @param index the argument index, relative to this view.
+     * @return the argument.
+     *
+     * @throws ArrayIndexOutOfBoundsException if the index is out of
+     *                                        range.
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+
+        return args[offset + index];
+    }
+
+    /**
+     * @param index the argument index, relative to this view.
+     * @param def   the default value.
+     * @return the argument, or the default if out of range.
+     */
+    public String get(int index, String def) {
+        return index >= 0 && index < size() ? args[offset + index] : def;
+    }
+
+    /**
+     * @return a view without the first argument, sharing the same
+     *         underlying array.
+     */
+    public BCommandArgs shift() {
+        return shift(1);
+    }
+
+    /**
+     * @param count the number of arguments to skip.
+     * @return a view without the first arguments, sharing the same
+     *         underlying array.
+     */
+    public BCommandArgs shift(int count) {
+        return new BCommandArgs(args, Math.min(args.length, offset + count));
+    }
+
+    /**
+     * @param from      the first argument to join, relative to this
+     *                  view.
+     * @param separator the separator between each argument.
+     * @return the joined arguments, or an empty string if none.
+     */
+    public String join(int from, String separator) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = offset + Math.max(0, from); i < args.length; i++) {
+            if (builder.length() > 0) {
+                builder.append(separator);
+            }
+
+            builder.append(args[i]);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * The array is created once, on first call, and must not be
+     * modified.
+     *
+     * @return the arguments in this view as an array.
+     */
+    public String[] toArray() {
+        if (array == null) {
+            array = offset == 0 ? args : Arrays.copyOfRange(args, offset, args.length);
+        }
+
+        return array;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
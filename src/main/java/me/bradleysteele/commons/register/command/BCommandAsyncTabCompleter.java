@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link BCommandTabCompleter} whose suggestions are produced
+ * asynchronously, for completers backed by storage.
+ * <p>
+ * On servers firing Paper's {@code AsyncTabCompleteEvent} suggestions
+ * which are already complete are used off the main thread, without
+ * waiting. Otherwise the synchronous {@link #tabComplete} is used. Both
+ * share the sender's in-flight request for the same arguments, so a
+ * query is never issued twice for one keystroke.
+ *
+ * @author Bradley Steele
+ */
+public interface BCommandAsyncTabCompleter extends BCommandTabCompleter {
+
+    /**
+     * May be invoked off the main thread.
+     *
+     * @param sender tab sender.
+     * @param alias  alias of the command being tabbed.
+     * @param args   arguments passed.
+     * @return future list of tab complete suggestions, completing with
+     *         {@code null} to fall back to the default suggestions.
+     */
+    CompletableFuture<List<String>> tabCompleteAsync(CommandSender sender, String alias, String[] args);
+
+    /**
+     * Synchronous fallback, never blocks. Reuses the sender's in-flight
+     * request for the same arguments, starting one if there is none.
+     *
+     * @param sender tab sender.
+     * @param alias  alias of the command being tabbed.
+     * @param args   arguments passed.
+     * @return the request's suggestions if complete, otherwise the
+     *         sender's last suggestions matching the argument being
+     *         completed.
+     */
+    @Override
+    default List<String> tabComplete(CommandSender sender, String alias, String[] args) {
+        CompletableFuture<List<String>> future = AsyncTabCompletionCache.request(sender, alias, args, this);
+
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            return future.getNow(Collections.emptyList());
+        }
+
+        return AsyncTabCompletionCache.last(sender, args.length > 0 ? args[args.length - 1] : "");
+    }
+
+}
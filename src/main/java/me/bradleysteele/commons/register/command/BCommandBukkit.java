@@ -18,14 +18,18 @@ package me.bradleysteele.commons.register.command;
 
 import me.bradleysteele.commons.util.logging.StaticLog;
 import me.bradleysteele.commons.util.reflect.Reflection;
+import com.google.common.collect.Maps;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandMap;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.plugin.Plugin;
 
 import java.lang.reflect.Field;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * @author Bradley Steele
@@ -44,6 +48,43 @@ public class BCommandBukkit extends Command {
     }
 // Solar end
 
+    private static final Map<String, BCommand> registered = Maps.newConcurrentMap();
+
+    /**
+     * Looks up a registered root command by label, safe to call off
+     * the main thread.
+     *
+     * @param label the command label, optionally prefixed with the
+     *              plugin name.
+     * @return the root command, or {@code null} if none or its plugin
+     *         is disabled.
+     */
+    public static BCommand getRegistered(String label) {
+        BCommand command = registered.get(label.toLowerCase(Locale.ENGLISH));
+        return command != null && command.plugin.isEnabled() ? command : null;
+    }
+
+    /**
+     * Forgets the plugin's commands, so they and the plugin are not
+     * retained once it disables.
+     *
+     * @param plugin the plugin.
+     */
+    public static void untrack(Plugin plugin) {
+        registered.values().removeIf(command -> command.plugin == plugin);
+    }
+
+    static void track(String fallbackPrefix, BCommand command) {
+        String prefix = fallbackPrefix.toLowerCase(Locale.ENGLISH) + ":";
+
+        for (String alias : command.getAliases()) {
+            String label = alias.toLowerCase(Locale.ENGLISH);
+
+            registered.putIfAbsent(label, command);
+            registered.put(prefix + label, command);
+        }
+    }
+
     private final BCommand command;
 
     protected BCommandBukkit(BCommand command) {
@@ -55,7 +96,7 @@ public class BCommandBukkit extends Command {
     @Override
     public boolean execute(CommandSender sender, String label, String[] args) {
         try {
-            command.executeCalled(sender, args);
+            command.executeCalled(sender, BCommandArgs.of(args));
         } catch (Exception e) {
             StaticLog.error("An exception occurred when executing the command &c" + label + "&r:");
             StaticLog.exception(e);
@@ -67,7 +108,7 @@ public class BCommandBukkit extends Command {
 
     @Override
     public List<String> tabComplete(CommandSender sender, String alias, String[] args) throws IllegalArgumentException {
-        List<String> result = command.tabCalled(sender, alias, args);
+        List<String> result = command.tabCalled(sender, alias, BCommandArgs.of(args));
 
         if (result == null) {
             // Fallback to builtin
@@ -16,6 +16,7 @@
 
 package me.bradleysteele.commons.register.command;
 
+import me.bradleysteele.commons.register.command.argument.ArgumentContext;
 import org.bukkit.command.CommandSender;
 
 /**
@@ -25,4 +26,31 @@ public interface BCommandExecutor {
 
     void execute(CommandSender sender, String[] args);
 
+    /**
+     * Invoked by {@link BCommand} dispatch. Implementations may override
+     * this to read the arguments without copying them, by default the
+     * arguments are copied into an array and passed to
+     * {@link #execute(CommandSender, String[])}.
+     *
+     * @param sender command sender.
+     * @param args   view of the arguments passed to the command.
+     */
+    default void execute(CommandSender sender, BCommandArgs args) {
+        execute(sender, args.toArray());
+    }
+
+    /**
+     * Invoked by {@link BCommand} dispatch in place of
+     * {@link #execute(CommandSender, BCommandArgs)} when the command
+     * declares arguments, after they have been successfully parsed.
+     *
+     * @param sender  command sender.
+     * @param context the parsed arguments.
+     *
+     * @see BCommand#setArguments(me.bradleysteele.commons.register.command.argument.Argument[])
+     */
+    default void execute(CommandSender sender, ArgumentContext context) {
+        execute(sender, context.getArgs());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import com.google.common.collect.Maps;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps a {@link BCommandTabCompleter} with a short-lived, per-sender
+ * cache. While a sender keeps typing the same argument, each keystroke
+ * narrows the previous suggestions instead of invoking the delegate
+ * again.
+ * <p>
+ * The delegate must only return suggestions which start with the last
+ * argument, case-insensitive, and must depend only on the sender and
+ * the preceding arguments, as is the case for name and list completion.
+ *
+ * @author Bradley Steele
+ */
+public class CachedTabCompleter implements BCommandTabCompleter {
+
+    private static final long DEFAULT_EXPIRY = TimeUnit.SECONDS.toNanos(2);
+    private static final int PRUNE_THRESHOLD = 64;
+
+    private final BCommandTabCompleter delegate;
+    private final long expiryNanos;
+    private final Map<Object, Entry> entries = Maps.newConcurrentMap();
+
+    /**
+     * @param delegate the tab completer to cache.
+     */
+    public CachedTabCompleter(BCommandTabCompleter delegate) {
+        this(delegate, DEFAULT_EXPIRY, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param delegate the tab completer to cache.
+     * @param expiry   how long results are kept after the last keystroke.
+     * @param unit     the unit of the expiry.
+     */
+    public CachedTabCompleter(BCommandTabCompleter delegate, long expiry, TimeUnit unit) {
+        this.delegate = delegate;
+        this.expiryNanos = unit.toNanos(expiry);
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String alias, String[] args) {
+        if (args.length == 0) {
+            return delegate.tabComplete(sender, alias, args);
+        }
+
+        Object key = sender instanceof Player ? ((Player) sender).getUniqueId() : sender.getName();
+        String context = alias + ' ' + String.join(" ", Arrays.asList(args).subList(0, args.length - 1));
+        String prefix = args[args.length - 1];
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+
+        if (entry != null && now - entry.time < expiryNanos && entry.context.equals(context)
+                && prefix.regionMatches(true, 0, entry.prefix, 0, entry.prefix.length())) {
+            List<String> narrowed = entry.prefix.length() == prefix.length()
+                    ? entry.results
+                    : narrow(entry.results, prefix);
+
+            entries.put(key, new Entry(context, prefix, narrowed, now));
+            return new ArrayList<>(narrowed);
+        }
+
+        List<String> results = delegate.tabComplete(sender, alias, args);
+
+        if (results != null) {
+            if (entries.size() >= PRUNE_THRESHOLD) {
+                entries.values().removeIf(e -> now - e.time >= expiryNanos);
+            }
+
+            entries.put(key, new Entry(context, prefix, new ArrayList<>(results), now));
+        } else {
+            entries.remove(key);
+        }
+
+        return results;
+    }
+
+    /**
+     * Discards all cached suggestions.
+     */
+    public void invalidate() {
+        entries.clear();
+    }
+
+    /**
+     * @return the wrapped tab completer.
+     */
+    public BCommandTabCompleter getDelegate() {
+        return delegate;
+    }
+
+    private static List<String> narrow(List<String> results, String prefix) {
+        List<String> narrowed = new ArrayList<>();
+
+        for (String result : results) {
+            if (result.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                narrowed.add(result);
+            }
+        }
+
+        return narrowed;
+    }
+
+    private static final class Entry {
+
+        private final String context;
+        private final String prefix;
+        private final List<String> results;
+        private final long time;
+
+        private Entry(String context, String prefix, List<String> results, long time) {
+            this.context = context;
+            this.prefix = prefix;
+            this.results = results;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import me.bradleysteele.commons.util.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution counts and latencies of a single {@link BCommand}, split
+ * between executions on the main thread and on the plugin's executor.
+ *
+ * @author Bradley Steele
+ */
+public class CommandMetrics {
+
+    private static volatile long slowThreshold = TimeUnit.MILLISECONDS.toNanos(20);
+
+    /**
+     * @param unit the unit to return the threshold in.
+     * @return the run time above which executions are logged as slow.
+     */
+    public static long getSlowThreshold(TimeUnit unit) {
+        return unit.convert(slowThreshold, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param threshold the run time above which executions are logged
+     *                  as slow, or {@code 0} to disable logging.
+     * @param unit      the unit of the threshold.
+     */
+    public static void setSlowThreshold(long threshold, TimeUnit unit) {
+        slowThreshold = unit.toNanos(threshold);
+    }
+
+    static boolean isSlow(long nanos) {
+        long threshold = slowThreshold;
+        return threshold > 0 && nanos > threshold;
+    }
+
+    private final LongAdder syncErrors = new LongAdder();
+    private final LongAdder asyncErrors = new LongAdder();
+
+    private final LatencyHistogram syncRun = new LatencyHistogram();
+    private final LatencyHistogram asyncRun = new LatencyHistogram();
+    private final LatencyHistogram asyncWait = new LatencyHistogram();
+
+    void recordRun(boolean async, long nanos) {
+        (async ? asyncRun : syncRun).record(nanos);
+    }
+
+    void recordWait(long nanos) {
+        asyncWait.record(nanos);
+    }
+
+    void recordError(boolean async) {
+        (async ? asyncErrors : syncErrors).increment();
+    }
+
+    /**
+     * @return the number of completed executions.
+     */
+    public long getInvocations() {
+        return syncRun.getCount() + asyncRun.getCount();
+    }
+
+    /**
+     * @return the number of executions which threw an exception.
+     */
+    public long getErrors() {
+        return syncErrors.sum() + asyncErrors.sum();
+    }
+
+    /**
+     * @return the number of main thread executions which threw an
+     *         exception.
+     */
+    public long getSyncErrors() {
+        return syncErrors.sum();
+    }
+
+    /**
+     * @return the number of async executions which threw an exception.
+     */
+    public long getAsyncErrors() {
+        return asyncErrors.sum();
+    }
+
+    /**
+     * @return run times of executions on the main thread.
+     */
+    public LatencyHistogram getSyncRunTimes() {
+        return syncRun;
+    }
+
+    /**
+     * @return run times of async executions.
+     */
+    public LatencyHistogram getAsyncRunTimes() {
+        return asyncRun;
+    }
+
+    /**
+     * @return time async executions waited for the executor.
+     */
+    public LatencyHistogram getAsyncWaitTimes() {
+        return asyncWait;
+    }
+
+    /**
+     * Discards all recorded metrics.
+     */
+    public void reset() {
+        syncErrors.reset();
+        asyncErrors.reset();
+        syncRun.reset();
+        asyncRun.reset();
+        asyncWait.reset();
+    }
+}
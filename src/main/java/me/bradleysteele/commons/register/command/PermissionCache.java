@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import com.google.common.collect.Maps;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of permission decisions for a {@link BCommand} tree
+ * which enables it, sparing the permission backend repeated queries
+ * while tab completing and walking deep trees. Each root command owns
+ * its own cache, see {@link BCommand#getPermissionCache()}.
+ * <p>
+ * A sender's decisions are discarded together once the cache duration
+ * elapses, when they change world or quit, when the server resends
+ * their command list (as it does when they are opped or deopped), or
+ * when invalidated by a permission plugin integration through
+ * {@link #invalidate(UUID)}. Other permission changes may be seen up
+ * to the cache duration late.
+ *
+ * @author Bradley Steele
+ */
+public final class PermissionCache {
+
+    private static final Set<PermissionCache> caches = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * @return every live command tree's cache.
+     */
+    public static Collection<PermissionCache> getCaches() {
+        synchronized (caches) {
+            return new ArrayList<>(caches);
+        }
+    }
+
+    /**
+     * @param id the unique id of the sender whose decisions should be
+     *           discarded from every cache.
+     */
+    public static void invalidateEverywhere(UUID id) {
+        getCaches().forEach(cache -> cache.invalidate(id));
+    }
+
+    private final Map<UUID, Entry> entries = Maps.newConcurrentMap();
+    private volatile long duration = TimeUnit.SECONDS.toNanos(2);
+
+    PermissionCache() {
+        synchronized (caches) {
+            caches.add(this);
+        }
+    }
+
+    /**
+     * Only players and other entities are cached, other senders are
+     * always queried.
+     *
+     * @param sender     the sender to check.
+     * @param permission the permission to check.
+     * @return {@code true} if the sender has the permission.
+     */
+    public boolean hasPermission(CommandSender sender, String permission) {
+        if (!(sender instanceof Entity)) {
+            return sender.hasPermission(permission);
+        }
+
+        UUID id = ((Entity) sender).getUniqueId();
+        long now = System.nanoTime();
+        Entry entry = entries.get(id);
+
+        if (entry == null || now - entry.created > duration) {
+            entry = new Entry(now);
+            entries.put(id, entry);
+        }
+
+        Boolean decision = entry.decisions.get(permission);
+
+        if (decision == null) {
+            decision = sender.hasPermission(permission);
+            entry.decisions.put(permission, decision);
+        }
+
+        return decision;
+    }
+
+    /**
+     * Never queries the permission backend, so is safe to call off the
+     * main thread.
+     *
+     * @param sender     the sender to check.
+     * @param permission the permission to check.
+     * @return the cached decision, or {@code null} if there is none.
+     */
+    public Boolean peek(CommandSender sender, String permission) {
+        if (!(sender instanceof Entity)) {
+            return null;
+        }
+
+        Entry entry = entries.get(((Entity) sender).getUniqueId());
+
+        if (entry == null || System.nanoTime() - entry.created > duration) {
+            return null;
+        }
+
+        return entry.decisions.get(permission);
+    }
+
+    /**
+     * @param id the unique id of the sender whose decisions should be
+     *           discarded.
+     */
+    public void invalidate(UUID id) {
+        entries.remove(id);
+    }
+
+    /**
+     * Discards all cached decisions.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Discards decisions which have outlived the cache duration.
+     */
+    public void purge() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.created > duration);
+    }
+
+    /**
+     * @return the number of senders with cached decisions.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param unit the unit to return the duration in.
+     * @return the time decisions are cached for.
+     */
+    public long getDuration(TimeUnit unit) {
+        return unit.convert(duration, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param duration the time decisions are cached for.
+     * @param unit     the unit of the duration.
+     */
+    public void setDuration(long duration, TimeUnit unit) {
+        this.duration = unit.toNanos(duration);
+    }
+
+    private static final class Entry {
+
+        private final long created;
+        private final Map<String, Boolean> decisions = Maps.newConcurrentMap();
+
+        Entry(long created) {
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable, case-insensitive index of strings sorted for prefix
+ * lookup. Completing a prefix binary searches for the first match and
+ * reads matches until the prefix no longer matches, rather than
+ * testing every value.
+ *
+ * @author Bradley Steele
+ */
+public final class PrefixIndex {
+
+    private static final Locale LOCALE = Locale.ENGLISH;
+    private static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new String[0]);
+
+    /**
+     * @return an empty index.
+     */
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param values the values to index, duplicates are kept.
+     * @return the index.
+     */
+    public static PrefixIndex of(Collection<String> values) {
+        String[] sorted = values.toArray(new String[0]);
+        Arrays.sort(sorted, Comparator.comparing(value -> value.toLowerCase(LOCALE)));
+
+        String[] keys = new String[sorted.length];
+
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].toLowerCase(LOCALE);
+        }
+
+        return new PrefixIndex(keys, sorted);
+    }
+
+    /**
+     * @param values the values to index, duplicates are kept.
+     * @return the index.
+     */
+    public static PrefixIndex of(String... values) {
+        return of(Arrays.asList(values));
+    }
+
+    private final String[] keys;
+    private final String[] values;
+
+    private PrefixIndex(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @param prefix the case-insensitive prefix.
+     * @return the values starting with the prefix, in order.
+     */
+    public List<String> complete(String prefix) {
+        return complete(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param prefix the case-insensitive prefix.
+     * @param limit  the maximum number of values to return.
+     * @return the values starting with the prefix, in order.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = prefix.toLowerCase(LOCALE);
+        int start = lowerBound(key);
+
+        if (start >= keys.length || !keys[start].startsWith(key)) {
+            return Collections.emptyList();
+        }
+
+        List<String> matches = new ArrayList<>();
+
+        for (int i = start; i < keys.length && matches.size() < limit && keys[i].startsWith(key); i++) {
+            matches.add(values[i]);
+        }
+
+        return matches;
+    }
+
+    /**
+     * @param value the value to add.
+     * @return a new index containing the value.
+     */
+    public PrefixIndex with(String value) {
+        String key = value.toLowerCase(LOCALE);
+        int index = lowerBound(key);
+
+        String[] newKeys = new String[keys.length + 1];
+        String[] newValues = new String[values.length + 1];
+
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        newKeys[index] = key;
+        newValues[index] = value;
+        System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+        System.arraycopy(values, index, newValues, index + 1, values.length - index);
+
+        return new PrefixIndex(newKeys, newValues);
+    }
+
+    /**
+     * @param value the value to remove, matched exactly.
+     * @return a new index without the value, or this index if the
+     *         value is not present.
+     */
+    public PrefixIndex without(String value) {
+        String key = value.toLowerCase(LOCALE);
+
+        for (int i = lowerBound(key); i < keys.length && keys[i].equals(key); i++) {
+            if (values[i].equals(value)) {
+                String[] newKeys = new String[keys.length - 1];
+                String[] newValues = new String[values.length - 1];
+
+                System.arraycopy(keys, 0, newKeys, 0, i);
+                System.arraycopy(values, 0, newValues, 0, i);
+                System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+                System.arraycopy(values, i + 1, newValues, i, values.length - i - 1);
+
+                return new PrefixIndex(newKeys, newValues);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * @return the number of indexed values.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    // First index whose key is not less than the provided key.
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+}
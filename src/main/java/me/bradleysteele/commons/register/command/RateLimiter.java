@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-sender token bucket, a cooldown being a bucket holding a single
+ * permit.
+ * <p>
+ * Each sender's bucket is a single {@link AtomicLong} holding the time
+ * at which the bucket would be full again, so acquiring a permit is one
+ * compare-and-set and never blocks. Full buckets carry no state and
+ * are swept from the map periodically.
+ *
+ * @author Bradley Steele
+ */
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(30);
+
+    // Marks a bucket removed by a sweep, acquirers must fetch a new one.
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    /**
+     * @param duration the time to wait between uses.
+     * @param unit     the unit of the duration.
+     * @return a limiter allowing one use per duration.
+     */
+    public static RateLimiter cooldown(long duration, TimeUnit unit) {
+        return new RateLimiter(1, duration, unit);
+    }
+
+    private final Map<UUID, AtomicLong> buckets = Maps.newConcurrentMap();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    private final int permits;
+    private final long interval;
+    private final long tolerance;
+
+    /**
+     * @param permits the number of uses allowed in a burst.
+     * @param period  the time taken for all permits to refill.
+     * @param unit    the unit of the period.
+     */
+    public RateLimiter(int permits, long period, TimeUnit unit) {
+        if (permits <= 0 || period <= 0) {
+            throw new IllegalArgumentException("permits and period must be positive.");
+        }
+
+        this.permits = permits;
+        this.interval = Math.max(1, unit.toNanos(period) / permits);
+        this.tolerance = interval * (permits - 1);
+    }
+
+    /**
+     * Attempts to take a permit from the sender's bucket.
+     *
+     * @param id the sender's unique id.
+     * @return {@code 0} if a permit was taken, otherwise the nanoseconds
+     *         until one is available.
+     */
+    public long tryAcquire(UUID id) {
+        long now = System.nanoTime();
+        sweep(now);
+
+        AtomicLong bucket = buckets.computeIfAbsent(id, key -> new AtomicLong(now));
+
+        while (true) {
+            long full = bucket.get();
+
+            if (full == RETIRED) {
+                buckets.remove(id, bucket);
+                bucket = buckets.computeIfAbsent(id, key -> new AtomicLong(now));
+                continue;
+            }
+
+            long start = full - now > 0 ? full : now;
+            long wait = start - tolerance - now;
+
+            if (wait > 0) {
+                return wait;
+            }
+
+            if (bucket.compareAndSet(full, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @param id the sender's unique id.
+     * @return the number of permits currently available.
+     */
+    public int getAvailable(UUID id) {
+        AtomicLong bucket = buckets.get(id);
+
+        long full = bucket != null ? bucket.get() : RETIRED;
+
+        if (full == RETIRED) {
+            return permits;
+        }
+
+        long used = full - System.nanoTime();
+
+        if (used <= 0) {
+            return permits;
+        }
+
+        return (int) Math.max(0, permits - (used + interval - 1) / interval);
+    }
+
+    /**
+     * @param id the sender's unique id whose bucket should be refilled.
+     */
+    public void reset(UUID id) {
+        buckets.remove(id);
+    }
+
+    /**
+     * @return the number of uses allowed in a burst.
+     */
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * @return the number of senders with a partially used bucket.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private void sweep(long now) {
+        long last = lastSweep.get();
+
+        if (now - last < SWEEP_INTERVAL || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+
+        // Full buckets are indistinguishable from absent ones. Retire
+        // a bucket before removing it, so a permit taken concurrently
+        // either keeps it or is taken from a new one.
+        for (Map.Entry<UUID, AtomicLong> entry : buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            long full = bucket.get();
+
+            if (full != RETIRED && full - now <= 0 && bucket.compareAndSet(full, RETIRED)) {
+                buckets.remove(entry.getKey(), bucket);
+            }
+        }
+    }
+}
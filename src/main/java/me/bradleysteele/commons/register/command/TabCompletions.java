@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command;
+
+import me.bradleysteele.commons.util.Players;
+import me.bradleysteele.commons.worker.WorkerPlayerNames;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tab completion helpers for {@link BCommandTabCompleter}s, backed by
+ * {@link PrefixIndex}es rather than filtering full lists.
+ *
+ * @author Bradley Steele
+ */
+public final class TabCompletions {
+
+    private TabCompletions() {}
+
+    /**
+     * Completes the names of online players the sender can see, hiding
+     * vanished players as Bukkit's own completion does.
+     *
+     * @param sender the sender completing.
+     * @param prefix the case-insensitive prefix.
+     * @return names of visible online players starting with the prefix.
+     */
+    public static List<String> players(CommandSender sender, String prefix) {
+        List<String> names = players(prefix);
+
+        if (!(sender instanceof Player)) {
+            return names;
+        }
+
+        Player viewer = (Player) sender;
+        List<String> visible = new ArrayList<>(names.size());
+
+        for (String name : names) {
+            Player player = Bukkit.getPlayerExact(name);
+
+            if (player == null || viewer.canSee(player)) {
+                visible.add(name);
+            }
+        }
+
+        return visible;
+    }
+
+    /**
+     * Completes online player names, including players hidden from the
+     * sender, see {@link #players(CommandSender, String)}. When the
+     * {@link WorkerPlayerNames} is registered its index is used,
+     * otherwise online players are filtered.
+     *
+     * @param prefix the case-insensitive prefix.
+     * @return names of online players starting with the prefix.
+     */
+    public static List<String> players(String prefix) {
+        PrefixIndex index = WorkerPlayerNames.getIndex();
+
+        if (index != null) {
+            return index.complete(prefix);
+        }
+
+        List<String> names = new ArrayList<>();
+
+        for (Player player : Players.getOnlinePlayers()) {
+            if (player.getName().regionMatches(true, 0, prefix, 0, prefix.length())) {
+                names.add(player.getName());
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * @param index  the index to complete from.
+     * @param prefix the case-insensitive prefix.
+     * @return values of the index starting with the prefix.
+     */
+    public static List<String> of(PrefixIndex index, String prefix) {
+        return index.complete(prefix);
+    }
+
+    /**
+     * @param args the arguments passed to the tab completer.
+     * @return the argument being completed, or an empty string if none.
+     */
+    public static String last(String[] args) {
+        return args.length > 0 ? args[args.length - 1] : "";
+    }
+}
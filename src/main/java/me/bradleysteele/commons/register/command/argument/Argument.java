@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command.argument;
+
+import me.bradleysteele.commons.util.Preconditions;
+
+/**
+ * A named, typed argument declared on a command. Arguments are used as
+ * keys to retrieve their parsed value from an {@link ArgumentContext}.
+ *
+ * @param <T> the parsed type.
+ *
+ * @author Bradley Steele
+ */
+public final class Argument<T> {
+
+    /**
+     * @param name the argument name, shown in usage messages.
+     * @param type the argument type.
+     * @param <T>  the parsed type.
+     * @return a required argument.
+     */
+    public static <T> Argument<T> required(String name, ArgumentType<T> type) {
+        return new Argument<>(name, type, false, null);
+    }
+
+    /**
+     * @param name the argument name, shown in usage messages.
+     * @param type the argument type.
+     * @param def  the value used when the argument is absent.
+     * @param <T>  the parsed type.
+     * @return an optional argument.
+     */
+    public static <T> Argument<T> optional(String name, ArgumentType<T> type, T def) {
+        return new Argument<>(name, type, true, def);
+    }
+
+    /**
+     * @param name the argument name, shown in usage messages.
+     * @param type the argument type.
+     * @param <T>  the parsed type.
+     * @return an optional argument defaulting to {@code null}.
+     */
+    public static <T> Argument<T> optional(String name, ArgumentType<T> type) {
+        return optional(name, type, null);
+    }
+
+    private final String name;
+    private final ArgumentType<T> type;
+    private final boolean optional;
+    private final T def;
+
+    private Argument(String name, ArgumentType<T> type, boolean optional, T def) {
+        this.name = Preconditions.nonNull(name, "name cannot be null.");
+        this.type = Preconditions.nonNull(type, "type cannot be null.");
+        this.optional = optional;
+        this.def = def;
+    }
+
+    /**
+     * @return the argument name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the argument type.
+     */
+    public ArgumentType<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return {@code true} if the argument may be omitted.
+     */
+    public boolean isOptional() {
+        return optional;
+    }
+
+    /**
+     * @return the value used when the argument is absent.
+     */
+    public T getDefault() {
+        return def;
+    }
+
+    /**
+     * @return the argument formatted for usage messages.
+     */
+    public String toUsage() {
+        return optional ? "[" + name + "]" : "<" + name + ">";
+    }
+}
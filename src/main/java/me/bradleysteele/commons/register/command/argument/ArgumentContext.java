@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command.argument;
+
+import me.bradleysteele.commons.register.command.BCommandArgs;
+
+import java.util.Arrays;
+
+/**
+ * Holds the values parsed by an {@link ArgumentSchema}. Values are
+ * retrieved with the {@link Argument} that declared them.
+ * <p>
+ * A context is created per invocation. Its error message contains the
+ * raw input which failed to parse and must not be passed through
+ * {@code Messages#colour}.
+ *
+ * @author Bradley Steele
+ */
+public final class ArgumentContext {
+
+    private final ArgumentSchema schema;
+    private final Object[] values;
+
+    private BCommandArgs args;
+    private String error;
+
+    ArgumentContext(ArgumentSchema schema) {
+        this.schema = schema;
+        this.values = new Object[schema.size()];
+    }
+
+    void reset(BCommandArgs args) {
+        Arrays.fill(values, null);
+        this.args = args;
+        this.error = null;
+    }
+
+    void set(int index, Object value) {
+        values[index] = value;
+    }
+
+    boolean fail(String error) {
+        this.error = error;
+        return false;
+    }
+
+    /**
+     * @param argument the declared argument.
+     * @param <T>      the parsed type.
+     * @return the parsed value, or the argument's default if absent.
+     *
+     * @throws IllegalArgumentException if the argument is not part of
+     *                                  the schema.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Argument<T> argument) {
+        int index = schema.indexOf(argument);
+
+        if (index < 0) {
+            throw new IllegalArgumentException("argument " + argument.getName() + " is not declared.");
+        }
+
+        return (T) values[index];
+    }
+
+    /**
+     * @param argument the declared argument.
+     * @return {@code true} if the argument was provided.
+     */
+    public boolean has(Argument<?> argument) {
+        int index = schema.indexOf(argument);
+        return index >= 0 && index < args.size();
+    }
+
+    /**
+     * @return the raw arguments parsed.
+     */
+    public BCommandArgs getArgs() {
+        return args;
+    }
+
+    /**
+     * @return the error of the last parse, or {@code null} if it
+     *         succeeded.
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command.argument;
+
+import me.bradleysteele.commons.register.command.BCommandArgs;
+import org.bukkit.command.CommandSender;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The compiled form of a command's declared {@link Argument}s. Parsing
+ * walks the arguments in order, storing each value in an
+ * {@link ArgumentContext}, and reports usage errors through the context
+ * rather than by throwing.
+ *
+ * @author Bradley Steele
+ */
+public final class ArgumentSchema {
+
+    /**
+     * @param arguments the declared arguments, in order.
+     * @return the compiled schema.
+     *
+     * @throws IllegalArgumentException if a required argument follows an
+     *                                  optional argument or a greedy
+     *                                  argument is not last.
+     */
+    public static ArgumentSchema compile(Argument<?>... arguments) {
+        boolean optional = false;
+
+        for (int i = 0; i < arguments.length; i++) {
+            Argument<?> argument = arguments[i];
+
+            if (optional && !argument.isOptional()) {
+                throw new IllegalArgumentException("required argument " + argument.getName() + " cannot follow an optional argument.");
+            }
+
+            if (argument.getType().isGreedy() && i != arguments.length - 1) {
+                throw new IllegalArgumentException("greedy argument " + argument.getName() + " must be the last argument.");
+            }
+
+            optional |= argument.isOptional();
+        }
+
+        return new ArgumentSchema(arguments.clone());
+    }
+
+    private final Argument<?>[] arguments;
+    private final String usage;
+
+    private ArgumentSchema(Argument<?>[] arguments) {
+        this.arguments = arguments;
+
+        StringBuilder builder = new StringBuilder();
+
+        for (Argument<?> argument : arguments) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+
+            builder.append(argument.toUsage());
+        }
+
+        this.usage = builder.toString();
+    }
+
+    /**
+     * @return a new context for this schema.
+     */
+    public ArgumentContext newContext() {
+        return new ArgumentContext(this);
+    }
+
+    /**
+     * Parses the arguments into the context. On failure the context's
+     * error describes the problem.
+     *
+     * @param sender  the command sender.
+     * @param args    the raw arguments.
+     * @param context the context to parse into, reset beforehand.
+     * @return {@code true} if the arguments were parsed.
+     */
+    public boolean parse(CommandSender sender, BCommandArgs args, ArgumentContext context) {
+        context.reset(args);
+
+        for (int i = 0; i < arguments.length; i++) {
+            Argument<?> argument = arguments[i];
+
+            if (i >= args.size()) {
+                if (!argument.isOptional()) {
+                    return context.fail("Missing argument " + argument.toUsage() + ".");
+                }
+
+                context.set(i, argument.getDefault());
+                continue;
+            }
+
+            String input = argument.getType().isGreedy() ? args.join(i, " ") : args.get(i);
+            Object value = argument.getType().parse(sender, input);
+
+            if (value == null) {
+                return context.fail("Invalid " + argument.getType().getName() + " for " + argument.toUsage() + ": " + input + ".");
+            }
+
+            context.set(i, value);
+        }
+
+        if (args.size() > arguments.length && (arguments.length == 0 || !arguments[arguments.length - 1].getType().isGreedy())) {
+            return context.fail("Too many arguments.");
+        }
+
+        return true;
+    }
+
+    /**
+     * Completes the last argument using its declared type.
+     *
+     * @param sender the command sender.
+     * @param args   the raw arguments, the last being partially typed.
+     * @return suggestions for the last argument.
+     */
+    public List<String> complete(CommandSender sender, BCommandArgs args) {
+        int index = args.size() - 1;
+
+        if (index < 0 || arguments.length == 0) {
+            return Collections.emptyList();
+        }
+
+        if (index >= arguments.length) {
+            Argument<?> last = arguments[arguments.length - 1];
+
+            if (!last.getType().isGreedy()) {
+                return Collections.emptyList();
+            }
+
+            index = arguments.length - 1;
+        }
+
+        return arguments[index].getType().complete(sender, args.get(args.size() - 1));
+    }
+
+    int indexOf(Argument<?> argument) {
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] == argument) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return the number of declared arguments.
+     */
+    public int size() {
+        return arguments.length;
+    }
+
+    /**
+     * @return the arguments formatted for usage messages, for example
+     *         {@code <player> [amount]}.
+     */
+    public String getUsage() {
+        return usage;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command.argument;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses a single command argument into a typed value. Parsing never
+ * throws, invalid input is reported by returning {@code null}.
+ *
+ * @param <T> the parsed type.
+ *
+ * @author Bradley Steele
+ * @see ArgumentTypes
+ */
+public interface ArgumentType<T> {
+
+    /**
+     * @param sender the command sender.
+     * @param input  the raw argument.
+     * @return the parsed value, or {@code null} if the input is invalid.
+     */
+    T parse(CommandSender sender, String input);
+
+    /**
+     * @param sender the command sender.
+     * @param prefix the partially typed argument.
+     * @return suggestions for the argument.
+     */
+    default List<String> complete(CommandSender sender, String prefix) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return a short, human readable name of the type used in
+     *         error messages.
+     */
+    String getName();
+
+    /**
+     * @return {@code true} if the type consumes all remaining arguments,
+     *         only permitted for the last argument.
+     */
+    default boolean isGreedy() {
+        return false;
+    }
+
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.command.argument;
+
+import me.bradleysteele.commons.register.command.PrefixIndex;
+import me.bradleysteele.commons.register.command.TabCompletions;
+import me.bradleysteele.commons.util.Players;
+import org.bukkit.Material;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Built-in {@link ArgumentType}s.
+ *
+ * @author Bradley Steele
+ */
+public final class ArgumentTypes {
+
+    private static final Locale LOCALE = Locale.ENGLISH;
+
+    private static final ArgumentType<String> WORD = new ArgumentType<String>() {
+
+        @Override
+        public String parse(CommandSender sender, String input) {
+            return input;
+        }
+
+        @Override
+        public String getName() {
+            return "word";
+        }
+    };
+
+    private static final ArgumentType<String> TEXT = new ArgumentType<String>() {
+
+        @Override
+        public String parse(CommandSender sender, String input) {
+            return input;
+        }
+
+        @Override
+        public String getName() {
+            return "text";
+        }
+
+        @Override
+        public boolean isGreedy() {
+            return true;
+        }
+    };
+
+    private static final ArgumentType<Player> PLAYER = new ArgumentType<Player>() {
+
+        @Override
+        public Player parse(CommandSender sender, String input) {
+            return Players.getPlayer(input);
+        }
+
+        @Override
+        public List<String> complete(CommandSender sender, String prefix) {
+            return TabCompletions.players(sender, prefix);
+        }
+
+        @Override
+        public String getName() {
+            return "player";
+        }
+    };
+
+    private static final ArgumentType<Material> MATERIAL = new ArgumentType<Material>() {
+
+        private volatile PrefixIndex names;
+
+        @Override
+        public Material parse(CommandSender sender, String input) {
+            return Material.matchMaterial(input);
+        }
+
+        @Override
+        public List<String> complete(CommandSender sender, String prefix) {
+            if (names == null) {
+                List<String> list = new ArrayList<>();
+
+                for (Material material : Material.values()) {
+                    list.add(material.name().toLowerCase(LOCALE));
+                }
+
+                names = PrefixIndex.of(list);
+            }
+
+            return names.complete(prefix);
+        }
+
+        @Override
+        public String getName() {
+            return "material";
+        }
+    };
+
+    private static final ArgumentType<Boolean> BOOLEAN = choice("boolean", new String[] {"true", "false"}, new Boolean[] {true, false});
+    private static final ArgumentType<Long> DURATION = new ArgumentType<Long>() {
+
+        @Override
+        public Long parse(CommandSender sender, String input) {
+            return parseDuration(input);
+        }
+
+        @Override
+        public String getName() {
+            return "duration";
+        }
+    };
+
+    private ArgumentTypes() {}
+
+    /**
+     * @return a single word.
+     */
+    public static ArgumentType<String> word() {
+        return WORD;
+    }
+
+    /**
+     * @return all remaining arguments joined by spaces.
+     */
+    public static ArgumentType<String> text() {
+        return TEXT;
+    }
+
+    /**
+     * @return any integer.
+     */
+    public static ArgumentType<Integer> integer() {
+        return integer(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param min the minimum value, inclusive.
+     * @param max the maximum value, inclusive.
+     * @return an integer in the range.
+     */
+    public static ArgumentType<Integer> integer(int min, int max) {
+        return new ArgumentType<Integer>() {
+
+            @Override
+            public Integer parse(CommandSender sender, String input) {
+                long value = parseLong(input);
+                return value != Long.MIN_VALUE && value >= min && value <= max ? (int) value : null;
+            }
+
+            @Override
+            public String getName() {
+                return "integer";
+            }
+        };
+    }
+
+    /**
+     * @return any finite decimal, without exponent.
+     */
+    public static ArgumentType<Double> decimal() {
+        return decimal(-Double.MAX_VALUE, Double.MAX_VALUE);
+    }
+
+    /**
+     * @param min the minimum value, inclusive.
+     * @param max the maximum value, inclusive.
+     * @return a decimal in the range.
+     */
+    public static ArgumentType<Double> decimal(double min, double max) {
+        return new ArgumentType<Double>() {
+
+            @Override
+            public Double parse(CommandSender sender, String input) {
+                if (!isDecimal(input)) {
+                    return null;
+                }
+
+                double value = Double.parseDouble(input);
+                return value >= min && value <= max ? value : null;
+            }
+
+            @Override
+            public String getName() {
+                return "number";
+            }
+        };
+    }
+
+    /**
+     * @return {@code true} or {@code false}, case-insensitive.
+     */
+    public static ArgumentType<Boolean> bool() {
+        return BOOLEAN;
+    }
+
+    /**
+     * @return an online player, by exact or partial name.
+     */
+    public static ArgumentType<Player> player() {
+        return PLAYER;
+    }
+
+    /**
+     * @return a material, by name.
+     */
+    public static ArgumentType<Material> material() {
+        return MATERIAL;
+    }
+
+    /**
+     * Parses durations such as {@code 90}, {@code 1h30m} or
+     * {@code 2d}, plain numbers are seconds. Supported units are
+     * {@code s}, {@code m}, {@code h}, {@code d} and {@code w}.
+     *
+     * @return a duration in milliseconds.
+     */
+    public static ArgumentType<Long> duration() {
+        return DURATION;
+    }
+
+    /**
+     * @param type the enum class.
+     * @param <E>  the enum type.
+     * @return a constant of the enum, case-insensitive.
+     */
+    public static <E extends Enum<E>> ArgumentType<E> enumeration(Class<E> type) {
+        E[] constants = type.getEnumConstants();
+        String[] names = new String[constants.length];
+
+        for (int i = 0; i < constants.length; i++) {
+            names[i] = constants[i].name().toLowerCase(LOCALE);
+        }
+
+        return choice(type.getSimpleName().toLowerCase(LOCALE), names, constants);
+    }
+
+    /**
+     * @param choices the permitted words.
+     * @return one of the words, case-insensitive.
+     */
+    public static ArgumentType<String> choice(String... choices) {
+        String[] names = new String[choices.length];
+
+        for (int i = 0; i < choices.length; i++) {
+            names[i] = choices[i].toLowerCase(LOCALE);
+        }
+
+        return choice("choice", names, choices.clone());
+    }
+
+    private static <T> ArgumentType<T> choice(String name, String[] names, T[] values) {
+        PrefixIndex suggestions = PrefixIndex.of(names);
+
+        return new ArgumentType<T>() {
+
+            @Override
+            public T parse(CommandSender sender, String input) {
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equalsIgnoreCase(input)) {
+                        return values[i];
+                    }
+                }
+
+                return null;
+            }
+
+            @Override
+            public List<String> complete(CommandSender sender, String prefix) {
+                return suggestions.complete(prefix);
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    // Util
+
+    /**
+     * @param input the input to parse.
+     * @return the parsed value, or {@link Long#MIN_VALUE} if the input
+     *         is not a valid long.
+     */
+    static long parseLong(String input) {
+        int length = input.length();
+
+        if (length == 0 || length > 19) {
+            return Long.MIN_VALUE;
+        }
+
+        boolean negative = input.charAt(0) == '-';
+        int i = negative || input.charAt(0) == '+' ? 1 : 0;
+
+        if (i == length) {
+            return Long.MIN_VALUE;
+        }
+
+        long value = 0;
+
+        for (; i < length; i++) {
+            char c = input.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return Long.MIN_VALUE;
+            }
+
+            value = value * 10 + (c - '0');
+
+            // 19 digits may overflow.
+            if (value < 0) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        return negative ? -value : value;
+    }
+
+    static boolean isDecimal(String input) {
+        int length = input.length();
+        int i = length > 0 && (input.charAt(0) == '-' || input.charAt(0) == '+') ? 1 : 0;
+        boolean digits = false;
+        boolean point = false;
+
+        for (; i < length; i++) {
+            char c = input.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return false;
+            }
+        }
+
+        return digits;
+    }
+
+    static Long parseDuration(String input) {
+        int length = input.length();
+
+        if (length == 0) {
+            return null;
+        }
+
+        long total = 0;
+        long value = -1;
+
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+
+                if (value > Integer.MAX_VALUE) {
+                    return null;
+                }
+
+                continue;
+            }
+
+            if (value < 0) {
+                return null;
+            }
+
+            long unit;
+
+            switch (Character.toLowerCase(c)) {
+                case 's':
+                    unit = 1000L;
+                    break;
+                case 'm':
+                    unit = 60_000L;
+                    break;
+                case 'h':
+                    unit = 3_600_000L;
+                    break;
+                case 'd':
+                    unit = 86_400_000L;
+                    break;
+                case 'w':
+                    unit = 604_800_000L;
+                    break;
+                default:
+                    return null;
+            }
+
+            total += value * unit;
+            value = -1;
+        }
+
+        // Trailing number without a unit is seconds.
+        if (value >= 0) {
+            total += value * 1000L;
+        }
+
+        return total;
+    }
+}
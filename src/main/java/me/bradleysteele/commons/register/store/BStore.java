@@ -16,15 +16,13 @@
 
 package me.bradleysteele.commons.register.store;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import me.bradleysteele.commons.BPlugin;
 import me.bradleysteele.commons.register.Registrable;
 import me.bradleysteele.commons.util.Preconditions;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * The {@link BStore} class maps keys to values of a specific type using the
@@ -45,12 +43,22 @@ import java.util.stream.Collectors;
  */
 public class BStore<T> implements Registrable {
 
-    private static final Random random = new Random();
     private static final Locale LOCALE = Locale.ENGLISH;
+    private static final int REJECTION_ATTEMPTS = 8;
 
     protected BPlugin plugin;
-    private final Map<Object, T> store = Maps.newHashMap();
+    private final Map<Object, T> store;
 
+    public BStore() {
+        this(new IndexedMap<>());
+    }
+
+    /**
+     * @param store the map backing the store.
+     */
+    protected BStore(Map<Object, T> store) {
+        this.store = store;
+    }
 
     @Override
     public void register() {}
@@ -68,7 +76,7 @@ public class BStore<T> implements Registrable {
      * @return if the key is present in the store.
      */
     public boolean exists(String key) {
-        return key != null && store.containsKey(key.toLowerCase());
+        return key != null && store.containsKey(lower(key));
     }
 
     /**
@@ -87,18 +95,49 @@ public class BStore<T> implements Registrable {
      *         {@code null}.
      */
     public T retrieve(String key) {
-        return key != null ? store.get(key.toLowerCase()) : null;
+        return key != null ? store.get(lower(key)) : null;
     }
 
     /**
+     * Values are picked in constant time, retrying while an excluded
+     * value is picked. If most values are excluded, or retries are
+     * exhausted, a single pass over the values is made instead.
+     *
      * @param exclude values to exclude from the retrieve.
-     * @return a random value from the store.
+     * @return a random value from the store, or {@code null} if every
+     *         value is excluded.
      */
+    @SuppressWarnings("unchecked")
     public T retrieveRandom(Collection<T> exclude) {
-        List<T> values = Lists.newArrayList(store.values());
-        values.removeAll(exclude);
+        if (!(store instanceof IndexedMap)) {
+            return sample(value -> !exclude.contains(value));
+        }
+
+        IndexedMap<Object, T> indexed = (IndexedMap<Object, T>) store;
+        int size = indexed.size();
 
-        return values.get(random.nextInt(values.size()));
+        if (size == 0) {
+            return null;
+        }
+
+        Random random = ThreadLocalRandom.current();
+
+        if (exclude.isEmpty()) {
+            return indexed.valueAt(random.nextInt(size));
+        }
+
+        if (exclude.size() < size / 2) {
+            for (int i = 0; i < REJECTION_ATTEMPTS; i++) {
+                T value = indexed.valueAt(random.nextInt(size));
+
+                if (!exclude.contains(value)) {
+                    return value;
+                }
+            }
+        }
+
+        // Dense exclusions.
+        return sample(value -> !exclude.contains(value));
     }
 
     /**
@@ -116,16 +155,35 @@ public class BStore<T> implements Registrable {
      * @return a random value from the store.
      */
     public T retrieveRandom(Predicate<T> predicate) {
-        List<T> values = Lists.newArrayList(store.values())
-                .stream()
-                .filter(predicate)
-                .collect(Collectors.toList());
+        return sample(predicate);
+    }
 
-        if (values.size() <= 0) {
-            return null;
+    // Reservoir sampling, a single pass without collecting matches.
+    @SuppressWarnings("unchecked")
+    private T sample(Predicate<T> predicate) {
+        Random random = ThreadLocalRandom.current();
+        T picked = null;
+        int matches = 0;
+
+        if (store instanceof IndexedMap) {
+            IndexedMap<Object, T> indexed = (IndexedMap<Object, T>) store;
+
+            for (int i = 0, size = indexed.size(); i < size; i++) {
+                T value = indexed.valueAt(i);
+
+                if (predicate.test(value) && random.nextInt(++matches) == 0) {
+                    picked = value;
+                }
+            }
+        } else {
+            for (T value : store.values()) {
+                if (predicate.test(value) && random.nextInt(++matches) == 0) {
+                    picked = value;
+                }
+            }
         }
 
-        return values.get(random.nextInt(values.size()));
+        return picked;
     }
 
     /**
@@ -174,7 +232,7 @@ public class BStore<T> implements Registrable {
         Preconditions.nonNull(key, "key cannot be null.");
         Preconditions.nonNull(value, "value cannot be null, use Store#drop to remove values.");
 
-        store.put(key.toLowerCase(), value);
+        store.put(lower(key), value);
     }
 
     /**
@@ -205,6 +263,16 @@ public class BStore<T> implements Registrable {
      */
     public T drop(String key) {
         Preconditions.nonNull(key);
-        return drop((Object) key.toLowerCase(LOCALE));
+        return drop((Object) lower(key));
+    }
+
+    /**
+     * @param key the key.
+     * @return the key as stored, in lowercase regardless of the
+     *         default locale.
+     * @throws NullPointerException if the key is {@code null}.
+     */
+    protected static String lower(String key) {
+        return Preconditions.nonNull(key, "key cannot be null.").toLowerCase(LOCALE);
     }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.store;
+
+import me.bradleysteele.commons.util.Preconditions;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link BStore} backed by a {@link ConcurrentHashMap}, safe to use
+ * from async commands and workers.
+ * <p>
+ * Reads never lock, iteration over the views returned by
+ * {@link #retrieveAll()}, {@link #retrieveValues()} and
+ * {@link #retrieveKeySet()} is weakly consistent, and the atomic
+ * operations below replace check-then-act sequences. As with
+ * {@link BStore}, {@link String} keys are converted to lowercase.
+ *
+ * @param <T> the store type.
+ *
+ * @author Bradley Steele
+ * @see ConcurrentHashMap
+ */
+public class ConcurrentBStore<T> extends BStore<T> {
+
+    private final ConcurrentMap<Object, T> store;
+
+    public ConcurrentBStore() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    private ConcurrentBStore(ConcurrentMap<Object, T> store) {
+        super(store);
+        this.store = store;
+    }
+
+    /**
+     * @param key   key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @throws NullPointerException if either parameters are {@code null}.
+     */
+    @Override
+    public void store(Object key, T value) {
+        Preconditions.nonNull(key, "key cannot be null.");
+        Preconditions.nonNull(value, "value cannot be null, use Store#drop to remove values.");
+
+        super.store(key, value);
+    }
+
+    /**
+     * @param key   key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @return the value already associated with the key, or {@code null}
+     *         if the value was stored.
+     */
+    public T storeIfAbsent(Object key, T value) {
+        return store.putIfAbsent(key, value);
+    }
+
+    /**
+     * @param key   in-case sensitive key with which the specified value
+     *              is to be associated.
+     * @param value value to be associated with the specified key.
+     * @return the value already associated with the key, or {@code null}
+     *         if the value was stored.
+     */
+    public T storeIfAbsent(String key, T value) {
+        return storeIfAbsent((Object) lower(key), value);
+    }
+
+    /**
+     * Atomically computes the key's new value.
+     *
+     * @param key      the key.
+     * @param function computes the new value from the current value, or
+     *                 {@code null} if absent; returning {@code null}
+     *                 drops the key.
+     * @return the new value, or {@code null} if dropped.
+     */
+    public T compute(Object key, BiFunction<Object, ? super T, ? extends T> function) {
+        return store.compute(key, function);
+    }
+
+    /**
+     * @param key      in-case sensitive key.
+     * @param function computes the new value from the current value.
+     * @return the new value, or {@code null} if dropped.
+     *
+     * @see #compute(Object, BiFunction)
+     */
+    public T compute(String key, BiFunction<Object, ? super T, ? extends T> function) {
+        return compute((Object) lower(key), function);
+    }
+
+    /**
+     * Atomically computes and stores a value if the key is absent.
+     *
+     * @param key      the key.
+     * @param function computes the value to store.
+     * @return the current or newly stored value.
+     */
+    public T computeIfAbsent(Object key, Function<Object, ? extends T> function) {
+        return store.computeIfAbsent(key, function);
+    }
+
+    /**
+     * @param key      in-case sensitive key.
+     * @param function computes the value to store.
+     * @return the current or newly stored value.
+     *
+     * @see #computeIfAbsent(Object, Function)
+     */
+    public T computeIfAbsent(String key, Function<Object, ? extends T> function) {
+        return computeIfAbsent((Object) lower(key), function);
+    }
+
+    /**
+     * Atomically computes the key's new value if present.
+     *
+     * @param key      the key.
+     * @param function computes the new value from the current value;
+     *                 returning {@code null} drops the key.
+     * @return the new value, or {@code null} if absent or dropped.
+     */
+    public T computeIfPresent(Object key, BiFunction<Object, ? super T, ? extends T> function) {
+        return store.computeIfPresent(key, function);
+    }
+
+    /**
+     * @param key      in-case sensitive key.
+     * @param function computes the new value from the current value.
+     * @return the new value, or {@code null} if absent or dropped.
+     *
+     * @see #computeIfPresent(Object, BiFunction)
+     */
+    public T computeIfPresent(String key, BiFunction<Object, ? super T, ? extends T> function) {
+        return computeIfPresent((Object) lower(key), function);
+    }
+
+    /**
+     * Atomically stores the value if the key is absent, otherwise
+     * combines it with the current value.
+     *
+     * @param key      the key.
+     * @param value    the value to store or combine.
+     * @param function combines the current value with the given value;
+     *                 returning {@code null} drops the key.
+     * @return the new value, or {@code null} if dropped.
+     */
+    public T merge(Object key, T value, BiFunction<? super T, ? super T, ? extends T> function) {
+        return store.merge(key, value, function);
+    }
+
+    /**
+     * @param key      in-case sensitive key.
+     * @param value    the value to store or combine.
+     * @param function combines the current value with the given value.
+     * @return the new value, or {@code null} if dropped.
+     *
+     * @see #merge(Object, Object, BiFunction)
+     */
+    public T merge(String key, T value, BiFunction<? super T, ? super T, ? extends T> function) {
+        return merge((Object) lower(key), value, function);
+    }
+
+    /**
+     * @param key      the key.
+     * @param expected the value expected to be associated with the key.
+     * @param value    the value to associate with the key.
+     * @return {@code true} if the value was replaced.
+     */
+    public boolean replace(Object key, T expected, T value) {
+        return store.replace(key, expected, value);
+    }
+
+    /**
+     * @param key      in-case sensitive key.
+     * @param expected the value expected to be associated with the key.
+     * @param value    the value to associate with the key.
+     * @return {@code true} if the value was replaced.
+     */
+    public boolean replace(String key, T expected, T value) {
+        return replace((Object) lower(key), expected, value);
+    }
+
+    /**
+     * @param key      the key.
+     * @param expected the value expected to be associated with the key.
+     * @return {@code true} if the key was dropped.
+     */
+    public boolean drop(Object key, T expected) {
+        return store.remove(key, expected);
+    }
+
+    /**
+     * @param key      in-case sensitive key.
+     * @param expected the value expected to be associated with the key.
+     * @return {@code true} if the key was dropped.
+     */
+    public boolean drop(String key, T expected) {
+        return drop((Object) lower(key), expected);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.store;
+
+import com.google.common.collect.Maps;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A hash map which also keeps its entries in a dense array, allowing a
+ * uniformly random entry to be picked in constant time. Removal swaps
+ * the last entry into the removed entry's position, so iteration order
+ * is unspecified.
+ *
+ * @author Bradley Steele
+ */
+final class IndexedMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, Node<K, V>> nodes = Maps.newHashMap();
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V>[] index = new Node[16];
+    private int size;
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * @param i the position, between {@code 0} and {@link #size()}.
+     * @return the value at the position.
+     */
+    V valueAt(int i) {
+        return index[i].value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return nodes.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = nodes.get(key);
+        return node != null ? node.value : null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Node<K, V> node = nodes.get(key);
+
+        if (node != null) {
+            return node.setValue(value);
+        }
+
+        if (size == index.length) {
+            index = Arrays.copyOf(index, size * 2);
+        }
+
+        node = new Node<>(key, value, size);
+        nodes.put(key, node);
+        index[size++] = node;
+
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<K, V> node = nodes.remove(key);
+
+        if (node == null) {
+            return null;
+        }
+
+        removeAt(node.position);
+        return node.value;
+    }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+        Arrays.fill(index, 0, size, null);
+        size = 0;
+    }
+
+    private void removeAt(int position) {
+        Node<K, V> last = index[--size];
+
+        index[position] = last;
+        last.position = position;
+        index[size] = null;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IndexedMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            // Iterates from the end, so removing an entry only moves an
+            // entry which has already been visited.
+            return new Iterator<Entry<K, V>>() {
+
+                private int cursor = size;
+                private Node<K, V> last;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor > 0;
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    if (cursor <= 0) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return last = index[--cursor];
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+
+                    nodes.remove(last.key);
+                    removeAt(last.position);
+                    last = null;
+                }
+            };
+        }
+    }
+
+    private static final class Node<K, V> implements Entry<K, V> {
+
+        private final K key;
+        private V value;
+        private int position;
+
+        Node(K key, V value, int position) {
+            this.key = key;
+            this.value = value;
+            this.position = position;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = this.value;
+            this.value = value;
+
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
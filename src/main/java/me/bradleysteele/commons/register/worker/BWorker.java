@@ -21,10 +21,22 @@ import me.bradleysteele.commons.register.Registrable;
 import me.bradleysteele.commons.util.logging.StaticLog;
 import me.bradleysteele.commons.util.reflect.Reflection;
 import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * The {@link BWorker} class is a modular task handler,
  * designed to handle both Bukkit Events and run tasks.
@@ -47,10 +59,20 @@ public class BWorker implements Registrable, Listener, Runnable {
     private boolean sync;
 
     private BukkitTask task;
+    private final AtomicBoolean dispatched = new AtomicBoolean();
+
+    private boolean timed;
+    private WorkerTimings timings;
 
     @Override // Registrable
     public void register() {
-        Bukkit.getPluginManager().registerEvents(this, plugin);
+        if (timed) {
+            timings = new WorkerTimings(plugin, plugin.getLoggableName(this));
+            registerTimedEvents();
+        } else {
+            Bukkit.getPluginManager().registerEvents(this, plugin);
+        }
+
         setRunning(true);
 
         plugin.getConsole().info(String.format("Registered worker: &a%s&r.", plugin.getLoggableName(this)));
@@ -98,6 +120,21 @@ public class BWorker implements Registrable, Listener, Runnable {
         return task;
     }
 
+    /**
+     * @return the worker's timings, or {@code null} if it is not timed.
+     */
+    public WorkerTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * @return {@code true} if the worker's runs and event handlers are
+     *         timed.
+     */
+    public boolean isTimed() {
+        return timed;
+    }
+
     /**
      * @return whether the task is running.
      */
@@ -133,15 +170,95 @@ public class BWorker implements Registrable, Listener, Runnable {
             }
 
             if (sync) {
-                task = Bukkit.getScheduler().runTaskTimer(plugin, this, delay, period);
+                task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, delay, period);
             } else {
-                task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this, delay, period);
+                // The scheduler only keeps time, runs are handed to the
+                // plugin's executor.
+                task = Bukkit.getScheduler().runTaskTimer(plugin, this::dispatch, delay, period);
             }
         } else if (task != null) {
             task.cancel();
         }
     }
 
+    private void tick() {
+        WorkerTimings timings = this.timings;
+
+        if (timings == null) {
+            run();
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            run();
+        } finally {
+            timings.recordRun(System.nanoTime() - start, sync);
+        }
+    }
+
+    // Mirrors Bukkit's own listener registration, wrapping each
+    // handler's invocation in timing.
+    @SuppressWarnings("unchecked")
+    private void registerTimedEvents() {
+        Set<Method> methods = new LinkedHashSet<>();
+        methods.addAll(Arrays.asList(getClass().getMethods()));
+        methods.addAll(Arrays.asList(getClass().getDeclaredMethods()));
+
+        for (Method method : methods) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+
+            if (handler == null || method.isBridge() || method.isSynthetic() || method.getParameterCount() != 1
+                    || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                continue;
+            }
+
+            Class<? extends Event> type = (Class<? extends Event>) method.getParameterTypes()[0];
+            String name = method.getName();
+            method.setAccessible(true);
+
+            EventExecutor executor = (listener, event) -> {
+                if (!type.isInstance(event)) {
+                    return;
+                }
+
+                long start = System.nanoTime();
+
+                try {
+                    method.invoke(listener, event);
+                } catch (InvocationTargetException e) {
+                    throw new EventException(e.getCause());
+                } catch (IllegalAccessException e) {
+                    throw new EventException(e);
+                } finally {
+                    timings.recordHandler(name, System.nanoTime() - start, Bukkit.isPrimaryThread());
+                }
+            };
+
+            Bukkit.getPluginManager().registerEvent(type, this, handler.priority(), executor, plugin, handler.ignoreCancelled());
+        }
+    }
+
+    private void dispatch() {
+        // Skip this period if the previous run is still in progress.
+        if (!dispatched.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            plugin.getExecutor().execute(() -> {
+                try {
+                    tick();
+                } finally {
+                    dispatched.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dispatched.set(false);
+        }
+    }
+
     /**
      * @param delay the ticks to wait until scheduling the task.
      */
@@ -156,6 +273,18 @@ public class BWorker implements Registrable, Listener, Runnable {
         this.period = period;
     }
 
+    /**
+     * Times the worker's runs and event handlers, must be set before the
+     * worker is registered.
+     *
+     * @param timed if the worker should be timed.
+     *
+     * @see WorkerTimings
+     */
+    public void setTimed(boolean timed) {
+        this.timed = timed;
+    }
+
     /**
      * @param sync if the task is running on the main thread.
      */
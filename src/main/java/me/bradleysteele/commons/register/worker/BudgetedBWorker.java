@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.worker;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link BWorker} which spreads its work across ticks, processing
+ * items each run until its time budget is spent and carrying the rest
+ * over to the next run.
+ * <p>
+ * Items come from two sources: those {@link #submit(Object) submitted}
+ * to the worker's queue, processed first, and periodic sweeps returned
+ * by {@link #nextSweep()}. A new sweep is only started once the
+ * previous one has been exhausted, and at most once per run.
+ * <p>
+ * The worker runs every tick on the main thread by default.
+ *
+ * @param <T> the type of item processed.
+ * @author Bradley Steele
+ */
+public abstract class BudgetedBWorker<T> extends BWorker {
+
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private Iterator<? extends T> sweep;
+    private volatile long budget = TimeUnit.MILLISECONDS.toNanos(2);
+    private volatile int processedLastRun;
+
+    public BudgetedBWorker() {
+        setPeriod(1);
+        setSync(true);
+    }
+
+    /**
+     * @param item the item to process.
+     */
+    protected abstract void process(T item);
+
+    /**
+     * Called when no sweep is in progress to start the next one. The
+     * iterator is advanced across several runs, so it should iterate
+     * over a snapshot rather than a live collection.
+     *
+     * @return the items to sweep, or {@code null} if none.
+     */
+    protected Iterator<? extends T> nextSweep() {
+        return null;
+    }
+
+    @Override
+    public final void run() {
+        if (sweep == null) {
+            sweep = nextSweep();
+        }
+
+        long deadline = System.nanoTime() + budget;
+        int processed = 0;
+
+        do {
+            T item = next();
+
+            if (item == null) {
+                break;
+            }
+
+            try {
+                process(item);
+            } catch (Exception e) {
+                plugin.getConsole().error("Failed to process item in worker &c%s&r:", plugin.getLoggableName(this));
+                plugin.getConsole().exception(e);
+            }
+
+            processed++;
+        } while (System.nanoTime() - deadline < 0);
+
+        processedLastRun = processed;
+    }
+
+    private T next() {
+        T item = queue.poll();
+
+        if (item != null) {
+            queued.decrementAndGet();
+            return item;
+        }
+
+        if (sweep != null) {
+            if (sweep.hasNext()) {
+                return sweep.next();
+            }
+
+            sweep = null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Queues an item to be processed ahead of any sweep in progress,
+     * may be called from any thread.
+     *
+     * @param item the item to process.
+     */
+    public void submit(T item) {
+        queue.offer(item);
+        queued.incrementAndGet();
+    }
+
+    /**
+     * @return the number of submitted items waiting to be processed,
+     *         excluding the remainder of any sweep in progress.
+     */
+    public int getBacklog() {
+        return queued.get();
+    }
+
+    /**
+     * @return {@code true} if a sweep is in progress.
+     */
+    public boolean isSweeping() {
+        return sweep != null;
+    }
+
+    /**
+     * @return the number of items processed in the most recent run.
+     */
+    public int getProcessedLastRun() {
+        return processedLastRun;
+    }
+
+    /**
+     * @param unit the unit to return the budget in.
+     * @return the time each run may spend processing items.
+     */
+    public long getBudget(TimeUnit unit) {
+        return unit.convert(budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * At least one item is processed per run, regardless of budget.
+     *
+     * @param budget the time each run may spend processing items.
+     * @param unit   the unit of the budget.
+     */
+    public void setBudget(long budget, TimeUnit unit) {
+        this.budget = unit.toNanos(budget);
+    }
+}
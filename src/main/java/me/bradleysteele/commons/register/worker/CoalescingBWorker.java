@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.worker;
+
+import com.google.common.collect.Maps;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A {@link BWorker} which coalesces a high-frequency event, such as
+ * {@code PlayerMoveEvent}, rather than handling each one.
+ * <p>
+ * Events passing the cheap {@link #filter(Event)} are reduced per
+ * {@link #key(Event) key} into a state, then the states collected since
+ * the previous run are delivered together to {@link #handle(Map)}
+ * once per run: every tick by default, or every N ticks with
+ * {@link #setPeriod(long)}.
+ * <p>
+ * Only events fired on the main thread may be coalesced, the worker
+ * always runs on the main thread and cannot be made asynchronous.
+ *
+ * @param <E> the type of event.
+ * @param <K> the type of key events are coalesced by.
+ * @param <S> the type of reduced state.
+ * @author Bradley Steele
+ */
+public abstract class CoalescingBWorker<E extends Event, K, S> extends BWorker {
+
+    private final Class<E> type;
+    private final EventPriority priority;
+    private final boolean ignoreCancelled;
+
+    private Map<K, S> pending = Maps.newHashMap();
+    private Map<K, S> delivering = Maps.newHashMap();
+
+    private long received;
+    private long coalesced;
+
+    /**
+     * @param type            the event to coalesce.
+     * @param priority        the priority to listen at.
+     * @param ignoreCancelled if cancelled events should be ignored.
+     */
+    protected CoalescingBWorker(Class<E> type, EventPriority priority, boolean ignoreCancelled) {
+        this.type = type;
+        this.priority = priority;
+        this.ignoreCancelled = ignoreCancelled;
+
+        setPeriod(1);
+        setSync(true);
+    }
+
+    /**
+     * Listens at {@link EventPriority#MONITOR}, ignoring cancelled events.
+     *
+     * @param type the event to coalesce.
+     */
+    protected CoalescingBWorker(Class<E> type) {
+        this(type, EventPriority.MONITOR, true);
+    }
+
+    /**
+     * Called for every event, should be cheap.
+     *
+     * @param event the event.
+     * @return {@code true} if the event should be coalesced.
+     */
+    protected boolean filter(E event) {
+        return true;
+    }
+
+    /**
+     * @param event the event.
+     * @return the key to coalesce the event by, such as the player, or
+     *         {@code null} to ignore the event.
+     */
+    protected abstract K key(E event);
+
+    /**
+     * Folds an event into its key's state. Returning a value derived
+     * from the event, rather than the event itself, avoids holding on
+     * to events until the next run.
+     *
+     * @param state the key's state, or {@code null} for the first event
+     *              since the previous run.
+     * @param event the event.
+     * @return the key's new state.
+     */
+    protected abstract S reduce(S state, E event);
+
+    /**
+     * @param batch the reduced state of each key since the previous
+     *              run, only valid for the duration of the call.
+     */
+    protected abstract void handle(Map<K, S> batch);
+
+    @Override
+    public void register() {
+        super.register();
+
+        Bukkit.getPluginManager().registerEvent(type, this, priority, (listener, event) -> {
+            if (!type.isInstance(event)) {
+                return;
+            }
+
+            WorkerTimings timings = getTimings();
+
+            if (timings == null) {
+                accept(type.cast(event));
+                return;
+            }
+
+            long start = System.nanoTime();
+
+            try {
+                accept(type.cast(event));
+            } finally {
+                timings.recordHandler("accept", System.nanoTime() - start, Bukkit.isPrimaryThread());
+            }
+        }, plugin, ignoreCancelled);
+    }
+
+    private void accept(E event) {
+        received++;
+
+        if (!filter(event)) {
+            return;
+        }
+
+        K key = key(event);
+
+        if (key != null) {
+            coalesced++;
+            pending.put(key, reduce(pending.get(key), event));
+        }
+    }
+
+    @Override
+    public final void run() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<K, S> batch = pending;
+        pending = delivering;
+        delivering = batch;
+
+        try {
+            handle(Collections.unmodifiableMap(batch));
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void unregister() {
+        super.unregister();
+        pending.clear();
+    }
+
+    /**
+     * @param sync must be {@code true}, the pending states are not
+     *             thread-safe.
+     *
+     * @throws IllegalArgumentException if {@code sync} is {@code false}.
+     */
+    @Override
+    public void setSync(boolean sync) {
+        if (!sync) {
+            throw new IllegalArgumentException("coalescing workers must run on the main thread.");
+        }
+
+        super.setSync(true);
+    }
+
+    /**
+     * @return the number of events received.
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * @return the number of events which passed the filter and were
+     *         reduced into a state.
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return the number of keys waiting to be delivered.
+     */
+    public int getPending() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.worker;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A {@link BWorker} which processes online players in round-robin
+ * shards, one shard per run, so every player is processed once every
+ * {@link #getShards()} runs and the cost is spread evenly across ticks.
+ * <p>
+ * Players are assigned to a shard by the hash of their unique id and
+ * are never moved between shards, so a player is processed exactly once
+ * per cycle. Shards are only as even as the hash distribution.
+ * <p>
+ * The worker runs every tick on the main thread by default.
+ *
+ * @author Bradley Steele
+ */
+public abstract class ShardedBWorker extends BWorker {
+
+    private List<Player>[] shards;
+    private final Set<UUID> assigned = Sets.newHashSet();
+
+    private Player[] scratch = new Player[0];
+    private int cursor;
+
+    /**
+     * @param shards the number of shards to divide players between.
+     */
+    public ShardedBWorker(int shards) {
+        setPeriod(1);
+        setSync(true);
+        setShards(shards);
+    }
+
+    /**
+     * Divides players between 20 shards, processing each player once
+     * per second.
+     */
+    public ShardedBWorker() {
+        this(20);
+    }
+
+    /**
+     * @param player the player to process.
+     */
+    protected abstract void process(Player player);
+
+    @Override
+    public void register() {
+        rebuild();
+        super.register();
+    }
+
+    @Override
+    public final void run() {
+        List<Player> shard = shards[cursor];
+        cursor = (cursor + 1) % shards.length;
+
+        // Processing may cause a player to quit, iterate over a copy.
+        int size = shard.size();
+        scratch = shard.toArray(scratch);
+
+        for (int i = 0; i < size; i++) {
+            Player player = scratch[i];
+            scratch[i] = null;
+
+            if (!player.isOnline()) {
+                continue;
+            }
+
+            try {
+                process(player);
+            } catch (Exception e) {
+                plugin.getConsole().error("Failed to process player in worker &c%s&r:", plugin.getLoggableName(this));
+                plugin.getConsole().exception(e);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onShardJoin(PlayerJoinEvent event) {
+        add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onShardQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+
+        if (assigned.remove(uuid)) {
+            shards[index(uuid)].remove(event.getPlayer());
+        }
+    }
+
+    private void add(Player player) {
+        if (assigned.add(player.getUniqueId())) {
+            shards[index(player.getUniqueId())].add(player);
+        }
+    }
+
+    private int index(UUID uuid) {
+        return Math.floorMod(uuid.hashCode(), shards.length);
+    }
+
+    private void rebuild() {
+        for (List<Player> shard : shards) {
+            shard.clear();
+        }
+
+        assigned.clear();
+        Bukkit.getOnlinePlayers().forEach(this::add);
+    }
+
+    /**
+     * @return the number of shards players are divided between.
+     */
+    public int getShards() {
+        return shards.length;
+    }
+
+    /**
+     * @param shard the shard index.
+     * @return the number of players in the shard.
+     */
+    public int getShardSize(int shard) {
+        return shards[shard].size();
+    }
+
+    /**
+     * @return the index of the shard processed next.
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Redistributes online players if the worker is registered.
+     *
+     * @param shards the number of shards to divide players between.
+     */
+    @SuppressWarnings("unchecked")
+    public void setShards(int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be positive.");
+        }
+
+        this.shards = new List[shards];
+        this.cursor = 0;
+
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = Lists.newArrayList();
+        }
+
+        if (plugin != null) {
+            rebuild();
+        }
+    }
+}
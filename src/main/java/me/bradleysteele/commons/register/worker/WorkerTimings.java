@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.register.worker;
+
+import com.google.common.collect.Maps;
+import me.bradleysteele.commons.BPlugin;
+import me.bradleysteele.commons.util.metrics.RollingTimings;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a {@link BWorker}'s runs and event handlers over their most
+ * recent 1200 samples, warning when a sample on the main thread takes
+ * more than a share of the 50ms tick.
+ * <p>
+ * The window counts samples, not time: it covers a minute of runs for
+ * a worker running every tick, but a busy event handler may fill it in
+ * well under a second.
+ *
+ * @author Bradley Steele
+ */
+public class WorkerTimings {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long WARNING_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+    private static final int WINDOW = 1200;
+
+    private final BPlugin plugin;
+    private final String name;
+
+    private final RollingTimings run = new RollingTimings(WINDOW);
+    private final Map<String, RollingTimings> handlers = Maps.newConcurrentMap();
+
+    private volatile double overrunShare = 0.1;
+    private volatile long lastWarning = System.nanoTime() - WARNING_INTERVAL;
+
+    WorkerTimings(BPlugin plugin, String name) {
+        this.plugin = plugin;
+        this.name = name;
+    }
+
+    void recordRun(long nanos, boolean sync) {
+        run.record(nanos);
+
+        if (sync) {
+            check("run", nanos);
+        }
+    }
+
+    void recordHandler(String handler, long nanos, boolean sync) {
+        handlers.computeIfAbsent(handler, key -> new RollingTimings(WINDOW)).record(nanos);
+
+        if (sync) {
+            check(handler, nanos);
+        }
+    }
+
+    private void check(String source, long nanos) {
+        double share = (double) nanos / TICK;
+
+        if (share <= overrunShare) {
+            return;
+        }
+
+        long now = System.nanoTime();
+
+        // Rate limited, an overrunning worker usually overruns every tick.
+        if (now - lastWarning < WARNING_INTERVAL) {
+            return;
+        }
+
+        lastWarning = now;
+        plugin.getConsole().warn("Worker &e%s &rtook &e%.2fms &rin &e%s&r, &e%.0f%% &rof a tick.",
+                name, nanos / 1e6, source, share * 100);
+    }
+
+    /**
+     * @return the share of a tick a main thread sample of this worker
+     *         may take before a warning is logged.
+     */
+    public double getOverrunShare() {
+        return overrunShare;
+    }
+
+    /**
+     * @param overrunShare the share of a tick, between {@code 0} and
+     *                     {@code 1}, a main thread sample of this worker
+     *                     may take before a warning is logged.
+     */
+    public void setOverrunShare(double overrunShare) {
+        this.overrunShare = overrunShare;
+    }
+
+    /**
+     * @return timings of the worker's runs.
+     */
+    public RollingTimings getRun() {
+        return run;
+    }
+
+    /**
+     * @return timings of the worker's event handlers, by method name.
+     */
+    public Map<String, RollingTimings> getHandlers() {
+        return Collections.unmodifiableMap(handlers);
+    }
+}
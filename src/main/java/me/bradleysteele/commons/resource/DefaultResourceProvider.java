@@ -20,12 +20,12 @@ import com.google.common.collect.Maps;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 import me.bradleysteele.commons.BPlugin;
-import org.bukkit.Bukkit;
 
 import java.io.*;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author Bradley Steele
@@ -83,13 +83,17 @@ public class DefaultResourceProvider implements ResourceProvider {
 
     @Override
     public void loadResource(ResourceReference reference, ResourceLoadResultHandler resultHandler) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                resultHandler.onComplete(loadResource(reference));
-            } catch (Exception e) {
-                resultHandler.onFailure(e);
-            }
-        });
+        try {
+            plugin.getExecutor().execute(() -> {
+                try {
+                    resultHandler.onComplete(loadResource(reference));
+                } catch (Exception e) {
+                    resultHandler.onFailure(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            resultHandler.onFailure(e);
+        }
     }
 
     @Override
@@ -16,6 +16,9 @@
 
 package me.bradleysteele.commons.resource;
 
+import me.bradleysteele.commons.BPlugin;
+import me.bradleysteele.commons.concurrent.MainThreadExecutor;
+
 /**
  * @author Bradley Steele
  * @version 1.0
@@ -31,4 +34,35 @@ public interface ResourceLoadResultHandler {
      * @param e exception thrown when attempting to load.
      */
     default void onFailure(Exception e) {}
+
+    /**
+     * @param handler the handler to invoke on the main thread.
+     * @return a handler which passes results to the given handler on the
+     *         main thread, batched through the {@link MainThreadExecutor}.
+     */
+    static ResourceLoadResultHandler onMainThread(ResourceLoadResultHandler handler) {
+        return onMainThread(null, handler);
+    }
+
+    /**
+     * @param plugin  the plugin the results belong to, they are dropped
+     *                if it disables before they are handled.
+     * @param handler the handler to invoke on the main thread.
+     * @return a handler which passes results to the given handler on the
+     *         main thread, batched through the {@link MainThreadExecutor}.
+     */
+    static ResourceLoadResultHandler onMainThread(BPlugin plugin, ResourceLoadResultHandler handler) {
+        return new ResourceLoadResultHandler() {
+
+            @Override
+            public void onComplete(Resource resource) {
+                MainThreadExecutor.get().execute(plugin, () -> handler.onComplete(resource));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                MainThreadExecutor.get().execute(plugin, () -> handler.onFailure(e));
+            }
+        };
+    }
 }
\ No newline at end of file
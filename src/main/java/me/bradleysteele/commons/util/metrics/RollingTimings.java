@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 Bradley Steele
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.bradleysteele.commons.util.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the most recent samples held in a ring, for rolling
+ * averages and percentiles, alongside the all-time maximum.
+ *
+ * @author Bradley Steele
+ */
+public class RollingTimings {
+
+    private final long[] samples;
+
+    private int next;
+    private int size;
+    private long total;
+    private long count;
+    private long max;
+
+    /**
+     * @param window the number of recent samples kept.
+     */
+    public RollingTimings(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive.");
+        }
+
+        samples = new long[window];
+    }
+
+    /**
+     * @param nanos the duration to record, in nanoseconds.
+     */
+    public synchronized void record(long nanos) {
+        if (size == samples.length) {
+            total -= samples[next];
+        } else {
+            size++;
+        }
+
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        total += nanos;
+        count++;
+        max = Math.max(max, nanos);
+    }
+
+    /**
+     * @return the total number of samples recorded.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @param unit the unit to return the duration in.
+     * @return the mean of the recent samples.
+     */
+    public synchronized double getAverage(TimeUnit unit) {
+        return size == 0 ? 0 : (double) total / size / unit.toNanos(1);
+    }
+
+    /**
+     * @param percentile the percentile, between {@code 0} and
+     *                   {@code 100}.
+     * @param unit       the unit to return the duration in.
+     * @return the percentile of the recent samples.
+     */
+    public double getPercentile(double percentile, TimeUnit unit) {
+        long[] sorted;
+
+        synchronized (this) {
+            if (size == 0) {
+                return 0;
+            }
+
+            sorted = Arrays.copyOf(samples, size);
+        }
+
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(sorted.length * Math.max(0, Math.min(100, percentile)) / 100D) - 1;
+
+        return (double) sorted[Math.max(0, index)] / unit.toNanos(1);
+    }
+
+    /**
+     * @param unit the unit to return the duration in.
+     * @return the longest duration recorded.
+     */
+    public synchronized double getMax(TimeUnit unit) {
+        return (double) max / unit.toNanos(1);
+    }
+
+    /**
+     * Discards all recorded samples.
+     */
+    public synchronized void reset() {
+        next = 0;
+        size = 0;
+        total = 0;
+        count = 0;
+        max = 0;
+    }
+}
@@ -0,0 +1,100 @@
+package me.bradleysteele.commons.worker;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import me.bradleysteele.commons.register.command.BCommand;
+import me.bradleysteele.commons.register.command.BCommandAsyncTabCompleter;
+import me.bradleysteele.commons.register.command.BCommandBukkit;
+import me.bradleysteele.commons.register.worker.BWorker;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.server.PluginDisableEvent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers Paper's {@code AsyncTabCompleteEvent} for {@link BCommand}s
+ * whose completer is a {@link BCommandAsyncTabCompleter}, without
+ * blocking the thread firing the event. Suggestions which are ready are
+ * used immediately; otherwise the request continues in the background
+ * and the event is left to the regular synchronous tab completion,
+ * which reuses the same request and offers the sender's last
+ * suggestions until it completes.
+ * <p>
+ * Also forgets the commands of plugins as they disable.
+ *
+ * @author Bradley Steele
+ */
+public class WorkerAsyncTabComplete extends BWorker {
+
+    private static final String EVENT_CLASS = "com.destroystokyo.paper.event.server.AsyncTabCompleteEvent";
+
+    /**
+     * @return {@code true} if the server fires asynchronous tab
+     *         complete events.
+     */
+    public static boolean isSupported() {
+        try {
+            Class.forName(EVENT_CLASS);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if (!event.isCommand() || event.isHandled()) {
+            return;
+        }
+
+        String buffer = event.getBuffer();
+        int start = buffer.startsWith("/") ? 1 : 0;
+        int space = buffer.indexOf(' ', start);
+
+        // Completing the label itself.
+        if (space < 0) {
+            return;
+        }
+
+        String label = buffer.substring(start, space);
+        BCommand command = BCommandBukkit.getRegistered(label);
+
+        if (command == null) {
+            return;
+        }
+
+        // Keep the trailing empty argument, it is the one being completed.
+        String[] args = buffer.substring(space + 1).split(" ", -1);
+        CompletableFuture<List<String>> future = command.tabCalledAsync(event.getSender(), label, args);
+
+        if (future == null) {
+            return;
+        }
+
+        // Never wait, this is a network thread.
+        if (!future.isDone()) {
+            return;
+        }
+
+        List<String> completions;
+
+        try {
+            completions = future.join();
+        } catch (Exception e) {
+            plugin.getConsole().error("An exception occurred when tab completing &c%s&r:", label);
+            plugin.getConsole().exception(e);
+            return;
+        }
+
+        if (completions != null) {
+            event.setCompletions(completions);
+            event.setHandled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        BCommandBukkit.untrack(event.getPlugin());
+    }
+}
@@ -1,45 +1,97 @@
 package me.bradleysteele.commons.worker;
 
+import com.google.common.collect.Maps;
+import me.bradleysteele.commons.inventory.AbstractBInventory;
 import me.bradleysteele.commons.inventory.BInventory;
 import me.bradleysteele.commons.register.worker.BWorker;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 
+import java.util.Map;
+
 /**
  * Handles the necessary inventory events for {@link BInventory} objects.
+ * <p>
+ * Open {@link BInventory}s are tracked by their inventory, clicks and
+ * drags are resolved with a single map lookup rather than querying the
+ * inventory's holder, which may create block state snapshots for
+ * non-GUI inventories.
  *
  * @author Bradley Steele
  */
 public class WorkerBInventory extends BWorker {
 
-    @EventHandler
-    public void onClick(InventoryClickEvent event) {
+    // Bukkit inventories are equal when they wrap the same handle,
+    // which holds true for every view of the same inventory.
+    private final Map<Inventory, BInventory> open = Maps.newHashMap();
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onOpen(InventoryOpenEvent event) {
         InventoryHolder holder = event.getInventory().getHolder();
 
         if (holder instanceof BInventory) {
-            ((BInventory) holder).onClick(event, (Player) event.getWhoClicked(), event.getCurrentItem());
+            open.put(event.getInventory(), (BInventory) holder);
+        }
+    }
+
+    @EventHandler
+    public void onClick(InventoryClickEvent event) {
+        BInventory inventory = open.get(event.getInventory());
+
+        if (inventory == null) {
+            return;
+        }
+
+        Player clicker = (Player) event.getWhoClicked();
+        inventory.onClick(event, clicker, event.getCurrentItem());
+
+        if (inventory instanceof AbstractBInventory) {
+            ((AbstractBInventory) inventory).dispatchClick(event, clicker);
         }
     }
 
     @EventHandler
     public void onDrag(InventoryDragEvent event) {
-        InventoryHolder holder = event.getInventory().getHolder();
+        BInventory inventory = open.get(event.getInventory());
 
-        if (holder instanceof BInventory) {
-            ((BInventory) holder).onDrag(event, (Player) event.getWhoClicked(), event.getCursor());
+        if (inventory != null) {
+            inventory.onDrag(event, (Player) event.getWhoClicked(), event.getCursor());
         }
     }
 
     @EventHandler
     public void onClose(InventoryCloseEvent event) {
-        InventoryHolder holder = event.getInventory().getHolder();
+        BInventory inventory = open.get(event.getInventory());
 
-        if (holder instanceof BInventory) {
-            ((BInventory) holder).onClose(event, (Player) event.getPlayer());
+        if (inventory == null) {
+            return;
         }
+
+        inventory.onClose(event, (Player) event.getPlayer());
+
+        // The closing player is still a viewer.
+        if (event.getViewers().size() <= 1) {
+            open.remove(event.getInventory());
+
+            if (inventory instanceof AbstractBInventory) {
+                ((AbstractBInventory) inventory).onClosed();
+            }
+        }
+    }
+
+    /**
+     * @param inventory the inventory to check.
+     * @return the open {@link BInventory} backed by the inventory, or
+     *         {@code null} if none.
+     */
+    public BInventory getOpen(Inventory inventory) {
+        return open.get(inventory);
     }
 }
\ No newline at end of file
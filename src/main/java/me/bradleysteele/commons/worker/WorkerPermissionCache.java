@@ -0,0 +1,51 @@
+package me.bradleysteele.commons.worker;
+
+import me.bradleysteele.commons.register.command.PermissionCache;
+import me.bradleysteele.commons.register.worker.BWorker;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Invalidates {@link PermissionCache}s when a player's permissions
+ * are likely to have been recalculated, and purges expired decisions.
+ *
+ * @author Bradley Steele
+ */
+public class WorkerPermissionCache extends BWorker {
+
+    public WorkerPermissionCache() {
+        setPeriod(20L * 60L);
+        setSync(true);
+    }
+
+    @Override
+    public void run() {
+        PermissionCache.getCaches().forEach(PermissionCache::purge);
+    }
+
+    @Override
+    public void onUnregister() {
+        PermissionCache.getCaches().forEach(PermissionCache::invalidateAll);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        // Permission plugins may apply per-world permissions.
+        PermissionCache.invalidateEverywhere(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommandSend(PlayerCommandSendEvent event) {
+        // Sent when a player is opped, deopped or their commands are
+        // updated after a permission change.
+        PermissionCache.invalidateEverywhere(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        PermissionCache.invalidateEverywhere(event.getPlayer().getUniqueId());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package me.bradleysteele.commons.worker;
+
+import me.bradleysteele.commons.register.command.PrefixIndex;
+import me.bradleysteele.commons.register.command.TabCompletions;
+import me.bradleysteele.commons.register.worker.BWorker;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains a {@link PrefixIndex} of online player names, updated as
+ * players join and quit, used by {@link TabCompletions#players(String)}.
+ *
+ * @author Bradley Steele
+ */
+public class WorkerPlayerNames extends BWorker {
+
+    private static volatile PrefixIndex index;
+
+    /**
+     * @return the index of online player names, or {@code null} if the
+     *         worker is not registered.
+     */
+    public static PrefixIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public void register() {
+        List<String> names = new ArrayList<>();
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            names.add(player.getName());
+        }
+
+        index = PrefixIndex.of(names);
+        super.register();
+    }
+
+    @Override
+    public void onUnregister() {
+        index = null;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        PrefixIndex current = index;
+
+        if (current != null) {
+            index = current.with(event.getPlayer().getName());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        PrefixIndex current = index;
+
+        if (current != null) {
+            index = current.without(event.getPlayer().getName());
+        }
+    }
+}
\ No newline at end of file